@@ -0,0 +1,74 @@
+package com.teknolabs.student_api.jmh;
+
+import com.teknolabs.student_api.cache.CachedPage;
+import com.teknolabs.student_api.config.RedisConfig;
+import com.teknolabs.student_api.config.StudentCacheProperties;
+import com.teknolabs.student_api.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Values as stored in Redis, with each {@code student.cache.serialization} setting: one student
+ * and a cached page of 20. Serialized sizes are compared in StudentBinaryRedisSerializerTests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    public StudentCacheProperties.Serialization serialization;
+
+    private RedisSerializer<Object> serializer;
+    private Student student;
+    private CachedPage<Student> page;
+    private byte[] studentBytes;
+    private byte[] pageBytes;
+
+    @Setup
+    public void setUp() {
+        serializer = RedisConfig.cacheValueSerializer(serialization);
+        student = Students.sample(42);
+        List<Student> content = LongStream.rangeClosed(1, 20).mapToObj(Students::sample).toList();
+        page = new CachedPage<>(content, 1_000);
+        studentBytes = serializer.serialize(student);
+        pageBytes = serializer.serialize(page);
+    }
+
+    @Benchmark
+    public byte[] serializeStudent() {
+        return serializer.serialize(student);
+    }
+
+    @Benchmark
+    public Object deserializeStudent() {
+        return serializer.deserialize(studentBytes);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object deserializePage() {
+        return serializer.deserialize(pageBytes);
+    }
+}
@@ -0,0 +1,121 @@
+package com.teknolabs.student_api.jmh;
+
+import com.teknolabs.student_api.StudentApiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics instrumentation on whole HTTP requests: the same calls with all meters off,
+ * with the default meters ({@code metrics=default}), and with the opt-in repository timers, cache
+ * load histograms and per-request query counting on as well ({@code metrics=detailed}). Pass
+ * {@code -p hibernateStatistics=true} to price the opt-in Hibernate statistics too. A cached read is
+ * where the fixed per-request cost weighs most; the page read adds repository timers, Hibernate
+ * statistics and statement counting. Run with
+ * {@code mvn verify -Pjmh -Djmh.args="MetricsOverheadBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Client and server share the machine; the server needs a long warm-up before timings settle
+@Warmup(iterations = 10, time = 4)
+@Measurement(iterations = 6, time = 4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"off", "default", "detailed"})
+    public String metrics;
+
+    @Param({"false"})
+    public boolean hibernateStatistics;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private long minId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:file:./target/jmh/students-" + ROWS + ";CACHE_SIZE=65536",
+            "--spring.jpa.show-sql=false",
+            "--spring.cache.type=simple",
+            "--student.search.enabled=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN"));
+        if (metrics.equals("off")) {
+            args.addAll(List.of(
+                "--management.metrics.enable.all=false",
+                "--management.observations.enable.all=false"));
+        } else if (hibernateStatistics) {
+            args.add("--student.metrics.hibernate-statistics=true");
+        }
+        if (metrics.equals("detailed")) {
+            args.addAll(List.of(
+                "--student.metrics.detailed-timing=true",
+                "--student.metrics.query-tracking.enabled=true"));
+        }
+        context = new SpringApplicationBuilder(StudentApiApplication.class)
+            .logStartupInfo(false)
+            .run(args.toArray(String[]::new));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Students.seed(jdbcTemplate, ROWS);
+        minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM students", Long.class);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public String cachedStudent() throws IOException, InterruptedException {
+        return get("/api/students/" + minId);
+    }
+
+    @Benchmark
+    public String summaryPage() throws IOException, InterruptedException {
+        int page = ThreadLocalRandom.current().nextInt(ROWS / PAGE_SIZE);
+        return get("/api/students/summaries?size=" + PAGE_SIZE + "&page=" + page);
+    }
+
+    private String get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,161 @@
+package com.teknolabs.student_api.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request: from launching the application JVM until it reports ready and has
+ * answered one API request, for the default configuration and the fast-start variants. Every
+ * mode runs the same jar and libraries from target/fast-start, so build them first and keep the
+ * same settings for the AOT build and the runs, e.g. without Redis:
+ * {@code mvn verify -Pfast-start,jmh -Dfast-start.jvm-arguments=-Dspring.cache.type=simple
+ * -Djmh.args="StartupBenchmark -p jvmArgs=-Dspring.cache.type=simple"}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final Path DIRECTORY = Path.of("target", "fast-start").toAbsolutePath();
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    /**
+     * baseline: default configuration; fast-start: lazy initialization, no schema validation;
+     * fast-start-aot: plus the AOT-generated bean definitions; fast-start-aot-cds: plus the class
+     * data sharing archive.
+     */
+    @Param({"baseline", "fast-start", "fast-start-aot", "fast-start-aot-cds"})
+    public String mode;
+
+    // Space-separated options added to every launch
+    @Param({""})
+    public String jvmArgs;
+
+    private HttpClient client;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void checkBuild() {
+        if (!Files.isRegularFile(DIRECTORY.resolve("application.jsa"))) {
+            throw new IllegalStateException(DIRECTORY + " has no CDS archive: build with -Pfast-start first");
+        }
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    @Benchmark
+    public String timeToFirstRequest() throws IOException, InterruptedException {
+        int port = freePort();
+        process = new ProcessBuilder(command(port))
+            .directory(DIRECTORY.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(DIRECTORY.resolve("startup-" + mode + ".log").toFile())
+            .start();
+        String baseUrl = "http://localhost:" + port;
+        awaitReady(baseUrl);
+        HttpResponse<String> response = client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/api/students?fields=id")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("First request answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private List<String> command(int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        if (!mode.equals("baseline")) {
+            command.add("-Dspring.profiles.active=fast-start");
+        }
+        if (mode.startsWith("fast-start-aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.equals("fast-start-aot-cds")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        command.add("-Dserver.port=" + port);
+        command.add("-cp");
+        command.add(applicationJar() + File.pathSeparator + "lib" + File.separator + "*");
+        command.add("com.teknolabs.student_api.StudentApiApplication");
+        return command;
+    }
+
+    // Same relative class path as the training run that recorded the archive
+    private static String applicationJar() throws IOException {
+        try (var files = Files.list(DIRECTORY)) {
+            return files.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith("-fast-start.jar"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No application jar in " + DIRECTORY));
+        }
+    }
+
+    private void awaitReady(String baseUrl) throws IOException, InterruptedException {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue()
+                    + ", see " + DIRECTORY.resolve("startup-" + mode + ".log"));
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Application not ready after " + TIMEOUT_MILLIS + " ms");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.teknolabs.student_api.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.teknolabs.student_api.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student JSON mapping of the REST API (Spring's ObjectMapper defaults). The Redis representation
+ * is measured by {@link CacheSerializerBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StudentJsonBenchmark {
+
+    private ObjectMapper restMapper;
+    private Student student;
+    private byte[] restJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        restMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        student = Students.sample(42);
+        restJson = restMapper.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public byte[] restSerialize() throws IOException {
+        return restMapper.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public Student restDeserialize() throws IOException {
+        return restMapper.readValue(restJson, Student.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.teknolabs.student_api.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teknolabs.student_api.StudentApiApplication;
+import com.teknolabs.student_api.model.StudentFieldSet;
+import com.teknolabs.student_api.repository.StudentRepository;
+import com.teknolabs.student_api.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncached list reads rendered to JSON, as full entities and as projections: a page of 100 by
+ * id, and the whole table with the three fields a list view shows. Run with the GC profiler to see
+ * allocation per call: {@code mvn verify -Pjmh -Djmh.args="-prof gc StudentProjectionBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class StudentProjectionBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final StudentFieldSet LIST_FIELDS = StudentFieldSet.parse("id,name,email");
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentRepository studentRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(StudentApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .run("--spring.datasource.url=jdbc:h2:file:./target/jmh/students-" + rows + ";CACHE_SIZE=65536",
+                "--spring.jpa.show-sql=false",
+                "--spring.cache.type=simple",
+                "--student.search.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+        Students.seed(context.getBean(JdbcTemplate.class), rows);
+        studentService = context.getBean(StudentService.class);
+        studentRepository = context.getBean(StudentRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws JsonProcessingException {
+        Pageable pageable = randomPage();
+        return objectMapper.writeValueAsBytes(readOnlyTransaction.execute(status -> studentRepository.findAll(pageable)));
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(studentService.getStudentSummaries(randomPage()));
+    }
+
+    @Benchmark
+    public byte[] entityTable() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(readOnlyTransaction.execute(status -> studentRepository.findAll()));
+    }
+
+    @Benchmark
+    public byte[] sparseFieldTable() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(studentService.getAllStudentFields(LIST_FIELDS));
+    }
+
+    private Pageable randomPage() {
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(rows / PAGE_SIZE), PAGE_SIZE, Sort.by("id"));
+    }
+}
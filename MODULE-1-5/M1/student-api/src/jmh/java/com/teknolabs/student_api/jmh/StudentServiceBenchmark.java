@@ -0,0 +1,143 @@
+package com.teknolabs.student_api.jmh;
+
+import com.teknolabs.student_api.StudentApiApplication;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.search.StudentSearch;
+import com.teknolabs.student_api.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentService reads against an H2 database of 10k, 100k and 1M students, with the query cache
+ * warm (the same request repeated) and cold (caches cleared before every call, random request).
+ * Runs with the in-process cache; the Redis value mapping is measured by {@link StudentJsonBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class StudentServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final Sort BY_NAME = Sort.by("name");
+    private static final String[] KEYWORDS = {"smith", "jo", "ssica", "jhon", "amine trabelsi"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private CacheManager cacheManager;
+    private long minId;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(StudentApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            // Arguments rather than default properties, which application.properties would override
+            .run("--spring.datasource.url=jdbc:h2:file:./target/jmh/students-" + rows + ";CACHE_SIZE=65536",
+                "--spring.jpa.show-sql=false",
+                "--spring.cache.type=simple",
+                "--student.search.enabled=true",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Students.seed(jdbcTemplate, rows);
+        minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM students", Long.class);
+        maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM students", Long.class);
+
+        // The index is built in the background at startup; seeding may have raced it
+        StudentSearch studentSearch = context.getBean(StudentSearch.class);
+        studentSearch.rebuild();
+
+        studentService = context.getBean(StudentService.class);
+        cacheManager = context.getBean(CacheManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /**
+     * Empties every cache before each call of the benchmarks that take it.
+     */
+    @State(Scope.Thread)
+    public static class ColdCache {
+
+        @Setup(Level.Invocation)
+        public void clear(StudentServiceBenchmark benchmark) {
+            for (String name : benchmark.cacheManager.getCacheNames()) {
+                Cache cache = benchmark.cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Student> getStudentByIdWarm() {
+        return studentService.getStudentById(minId);
+    }
+
+    @Benchmark
+    public Optional<Student> getStudentByIdCold(ColdCache coldCache) {
+        return studentService.getStudentById(ThreadLocalRandom.current().nextLong(minId, maxId + 1));
+    }
+
+    @Benchmark
+    public Page<Student> listPageWarm() {
+        return studentService.getAllStudentsPaged(PageRequest.of(0, PAGE_SIZE, BY_NAME));
+    }
+
+    @Benchmark
+    public Page<Student> listPageCold(ColdCache coldCache) {
+        int page = ThreadLocalRandom.current().nextInt(rows / PAGE_SIZE);
+        return studentService.getAllStudentsPaged(PageRequest.of(page, PAGE_SIZE, BY_NAME));
+    }
+
+    @Benchmark
+    public Page<Student> searchStudentsWarm() {
+        return studentService.searchStudents(KEYWORDS[0], firstPage());
+    }
+
+    @Benchmark
+    public Page<Student> searchStudentsCold(ColdCache coldCache) {
+        String keyword = KEYWORDS[ThreadLocalRandom.current().nextInt(KEYWORDS.length)];
+        return studentService.searchStudents(keyword, firstPage());
+    }
+
+    private static Pageable firstPage() {
+        return PageRequest.of(0, PAGE_SIZE);
+    }
+}
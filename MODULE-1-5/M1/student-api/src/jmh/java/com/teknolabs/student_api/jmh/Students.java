@@ -0,0 +1,65 @@
+package com.teknolabs.student_api.jmh;
+
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class Students {
+
+    static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+        "Linda", "William", "Elizabeth", "David", "Barbara", "Joseph", "Jessica", "Thomas", "Sarah", "Amine",
+        "Yasmine", "Mohamed", "Fatma", "Youssef", "Salma"};
+    static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+        "Davis", "Wilson", "Anderson", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Ben Ali", "Trabelsi",
+        "Gharbi", "Jebali", "Mansour"};
+
+    private static final int BATCH = 10_000;
+
+    private Students() {
+    }
+
+    static Student sample(long id) {
+        Student student = new Student();
+        student.setId(id);
+        student.setName("Jane Smith");
+        student.setEmail("jane.smith" + id + "@example.com");
+        student.setDateOfBirth(LocalDate.of(2001, 3, 21));
+        student.setPhoneNumber("+1234567891");
+        student.setStatus(StudentStatus.ACTIVE);
+        student.setCreatedDate(LocalDateTime.of(2024, 1, 15, 10, 30));
+        student.setCreatedBy("SYSTEM");
+        student.setLastModifiedDate(LocalDateTime.of(2024, 2, 1, 8, 0));
+        student.setLastModifiedBy("admin");
+        return student;
+    }
+
+    /**
+     * Tops the students table up to {@code rows} rows. Databases are file based and kept under
+     * target/jmh, so only the first run at a given size pays for seeding.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Integer.class);
+        Random random = new Random(existing);
+        for (int start = existing; start < rows; start += BATCH) {
+            List<Object[]> batch = new ArrayList<>(BATCH);
+            for (int i = start; i < Math.min(start + BATCH, rows); i++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                String email = (first + "." + last).toLowerCase().replace(" ", "") + i + "@example.com";
+                LocalDate dateOfBirth = LocalDate.of(1995, 1, 1).plusDays(random.nextInt(4000));
+                batch.add(new Object[] {first + " " + last, email, dateOfBirth});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO students (name, email, date_of_birth, student_status, created_date, "
+                + "created_by) VALUES (?, ?, ?, 'ACTIVE', CURRENT_TIMESTAMP(), 'SYSTEM')", batch);
+        }
+    }
+}
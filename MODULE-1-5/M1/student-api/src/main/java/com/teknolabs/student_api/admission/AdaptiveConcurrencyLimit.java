@@ -0,0 +1,130 @@
+package com.teknolabs.student_api.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Cap on the requests in progress, adjusted to the latency they see. Once per window the average
+ * latency of the window is compared with the usual latency (a slow moving average of past windows):
+ * while it stays within the tolerance the limit grows by about its square root, beyond that it
+ * shrinks in proportion to the slowdown. Each step is smoothed, so a single slow window only nudges
+ * it. Queueing in the connection pool shows up as latency well before the pool is exhausted, so the
+ * limit settles just below the point where the node starts to slow down, without having to be tuned
+ * to the hardware.
+ * <p>
+ * Each priority may only fill its share of the limit, so that as load grows low priority requests
+ * are refused first while there is still room for the others.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    // Weight of each window in the usual latency: it follows a lasting change within about 20 windows
+    private static final double USUAL_LATENCY_WEIGHT = 0.05;
+    private static final int MIN_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long window;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder latencyTotal = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicLong windowStart;
+    private volatile double limit;
+    private volatile double usualLatency;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                    double smoothing, long windowNanos, LongSupplier clock) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.window = windowNanos;
+        this.clock = clock;
+        this.limit = clamp(initialLimit, this.minLimit, this.maxLimit);
+        this.windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Admits a request unless the requests in progress already fill the share of the limit open to it.
+     * An admitted request must be followed by one call to {@link #release}.
+     */
+    public boolean tryAcquire(double share) {
+        int ceiling = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= ceiling) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted request that took this long.
+     */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        latencyTotal.add(latencyNanos);
+        samples.increment();
+        long now = clock.getAsLong();
+        long start = windowStart.get();
+        // Whoever ends the window adjusts the limit; the others carry on
+        if (now - start >= window && samples.sum() >= MIN_SAMPLES && windowStart.compareAndSet(start, now)) {
+            adjust();
+        }
+    }
+
+    /**
+     * Ends an admitted request whose latency says nothing about the load, such as a streamed export.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust() {
+        // Samples added meanwhile may land in either window: close enough for an average
+        long count = samples.sumThenReset();
+        double latency = Math.max(1, (double) latencyTotal.sumThenReset() / Math.max(1, count));
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        double usual = usualLatency;
+        if (usual == 0) {
+            usual = latency;
+        } else if (usual > 2 * latency) {
+            // Much faster than usual: the node has recovered, catch up quickly
+            usual = (usual + latency) / 2;
+        } else {
+            usual += (latency - usual) * USUAL_LATENCY_WEIGHT;
+        }
+        usualLatency = usual;
+
+        double current = limit;
+        double gradient = clamp(tolerance * usual / latency, 0.5, 1.0);
+        if (gradient == 1.0 && peak < current / 2) {
+            // The limit was nowhere near reached, so this window says nothing about whether it can grow
+            return;
+        }
+        double target = current * gradient + Math.sqrt(current);
+        limit = clamp(current * (1 - smoothing) + target * smoothing, minLimit, maxLimit);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.min(max, Math.max(min, value));
+    }
+}
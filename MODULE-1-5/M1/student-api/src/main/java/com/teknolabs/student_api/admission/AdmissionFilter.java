@@ -0,0 +1,199 @@
+package com.teknolabs.student_api.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teknolabs.student_api.config.AdmissionProperties;
+import com.teknolabs.student_api.model.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for the student endpoints. A request is refused, before it reaches the
+ * controller, when
+ * <ul>
+ *   <li>its client has used up its token bucket, or all clients together that of its endpoint
+ *   (429 Too Many Requests, Retry-After: when the next token is due), or</li>
+ *   <li>the requests in progress fill the share of the {@link AdaptiveConcurrencyLimit} open to its
+ *   priority (503 Service Unavailable, Retry-After as configured), so that search and list calls
+ *   are shed before single-student reads and writes.</li>
+ * </ul>
+ * Refusals are counted in {@code student.admission.rejected}, tagged with the reason and endpoint.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String CLIENT_RATE = "client-rate";
+    private static final String ENDPOINT_RATE = "endpoint-rate";
+    private static final String OVERLOAD = "overload";
+
+    private final AdmissionProperties properties;
+    private final RateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Rejection, Counter> rejections = new ConcurrentHashMap<>();
+
+    /**
+     * @param concurrencyLimit null to only apply the rate limits
+     */
+    public AdmissionFilter(AdmissionProperties properties, RateLimiter rateLimiter,
+                           AdaptiveConcurrencyLimit concurrencyLimit, MeterRegistry meterRegistry,
+                           ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        if (concurrencyLimit != null) {
+            Gauge.builder("student.admission.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Requests allowed in progress at once, adjusted to the observed latency")
+                .register(meterRegistry);
+            Gauge.builder("student.admission.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Admitted requests in progress")
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Endpoint endpoint = Endpoint.of(request.getMethod(), path, request.getParameter("ids") != null);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long wait = rateLimiter.tryAcquire("client:" + client(request), properties.getPerClient());
+        if (wait > 0) {
+            reject(response, endpoint, CLIENT_RATE, HttpStatus.TOO_MANY_REQUESTS, wait,
+                "Too many requests from this client, retry later");
+            return;
+        }
+        AdmissionProperties.Rate endpointRate = properties.getEndpoints().get(endpoint.tag());
+        if (endpointRate != null) {
+            wait = rateLimiter.tryAcquire("endpoint:" + endpoint.tag(), endpointRate);
+            if (wait > 0) {
+                reject(response, endpoint, ENDPOINT_RATE, HttpStatus.TOO_MANY_REQUESTS, wait,
+                    "Too many requests to this endpoint, retry later");
+                return;
+            }
+        }
+        if (concurrencyLimit == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire(share(endpoint.priority()))) {
+            reject(response, endpoint, OVERLOAD, HttpStatus.SERVICE_UNAVAILABLE,
+                properties.getConcurrency().getRetryAfter().toNanos(), "The service is overloaded, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streamed responses hold their slot until the stream ends
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                concurrencyLimit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        String header = properties.getClientHeader();
+        String value = header == null ? null : request.getHeader(header);
+        if (value == null || value.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        // The last entry is the one added by the proxy in front of us; anything before it is whatever the
+        // client sent, so keying on it would let a client pick a fresh bucket for every request
+        int comma = value.lastIndexOf(',');
+        return (comma < 0 ? value : value.substring(comma + 1)).trim();
+    }
+
+    private double share(Priority priority) {
+        return switch (priority) {
+            case HIGH -> 1.0;
+            case NORMAL -> properties.getConcurrency().getNormalPriorityShare();
+            case LOW -> properties.getConcurrency().getLowPriorityShare();
+        };
+    }
+
+    private void reject(HttpServletResponse response, Endpoint endpoint, String reason, HttpStatus status,
+                        long retryAfterNanos, String message) throws IOException {
+        rejections.computeIfAbsent(new Rejection(reason, endpoint), this::rejectionCounter).increment();
+        // Whole seconds, rounded up: retrying a little late is fine, retrying early is refused again
+        long seconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+            new ErrorResponse(status.value(), message, System.currentTimeMillis()));
+    }
+
+    private Counter rejectionCounter(Rejection rejection) {
+        return Counter.builder("student.admission.rejected")
+            .description("Requests refused by admission control")
+            .tag("reason", rejection.reason())
+            .tag("endpoint", rejection.endpoint().tag())
+            .tag("priority", rejection.endpoint().priority().name().toLowerCase())
+            .register(meterRegistry);
+    }
+
+    private record Rejection(String reason, Endpoint endpoint) {
+    }
+
+    private class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Restarted async processing keeps this listener only if added again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimit.release();
+            }
+        }
+    }
+}
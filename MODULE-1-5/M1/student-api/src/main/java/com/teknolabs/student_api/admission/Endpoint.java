@@ -0,0 +1,75 @@
+package com.teknolabs.student_api.admission;
+
+import java.util.regex.Pattern;
+
+/**
+ * The student endpoints, grouped by cost. Requests are classified from their method and path,
+ * before any handler is resolved, so that a refused request costs next to nothing.
+ */
+public enum Endpoint {
+    // GET /api/students/{id}
+    READ(Priority.HIGH),
+    // GET /api/students?ids=
+    LOOKUP(Priority.NORMAL),
+    // GET /api/students, /api/students/summaries, /api/students/cursor and the /students page
+    LIST(Priority.LOW),
+    SEARCH(Priority.LOW),
+    EXPORT(Priority.LOW),
+    // Creates, updates, deletes, imports and status transitions
+    WRITE(Priority.HIGH),
+    // Stats, events, forms
+    OTHER(Priority.NORMAL);
+
+    private static final String API = "/api/students";
+    private static final String PAGES = "/students";
+    private static final Pattern ID = Pattern.compile("/\\d+");
+
+    private final Priority priority;
+
+    Endpoint(Priority priority) {
+        this.priority = priority;
+    }
+
+    public Priority priority() {
+        return priority;
+    }
+
+    /**
+     * Name used in settings and metric tags.
+     */
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * The endpoint a request is for, or null when it is not a student endpoint.
+     */
+    public static Endpoint of(String method, String path, boolean hasIds) {
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (path.equals(API) || path.startsWith(API + "/")) {
+            if (!read) {
+                return WRITE;
+            }
+            String rest = path.substring(API.length());
+            if (rest.isEmpty() || rest.equals("/")) {
+                return hasIds ? LOOKUP : LIST;
+            }
+            if (ID.matcher(rest).matches()) {
+                return READ;
+            }
+            return switch (rest) {
+                case "/search" -> SEARCH;
+                case "/summaries", "/cursor" -> LIST;
+                case "/export" -> EXPORT;
+                default -> OTHER;
+            };
+        }
+        if (path.equals(PAGES) || path.startsWith(PAGES + "/")) {
+            if (!read) {
+                return WRITE;
+            }
+            return path.equals(PAGES) ? LIST : OTHER;
+        }
+        return null;
+    }
+}
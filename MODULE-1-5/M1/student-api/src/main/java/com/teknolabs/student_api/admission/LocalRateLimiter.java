@@ -0,0 +1,35 @@
+package com.teknolabs.student_api.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teknolabs.student_api.config.AdmissionProperties;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets in this node's memory. Buckets not used for a while are dropped: by then they
+ * would be full again, exactly as a new one, so forgetting them changes nothing.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier clock;
+
+    public LocalRateLimiter(int maximumBuckets, Duration idleTimeout) {
+        this(maximumBuckets, idleTimeout, System::nanoTime);
+    }
+
+    LocalRateLimiter(int maximumBuckets, Duration idleTimeout, LongSupplier clock) {
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maximumBuckets)
+            .expireAfterAccess(idleTimeout)
+            .build();
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, AdmissionProperties.Rate rate) {
+        return buckets.get(key, k -> new TokenBucket(rate.getRate(), rate.getBurst(), clock)).tryAcquire();
+    }
+}
@@ -0,0 +1,11 @@
+package com.teknolabs.student_api.admission;
+
+/**
+ * Which requests are shed first when the node is overloaded: low priority ones are refused while
+ * there is still room for the others.
+ */
+public enum Priority {
+    HIGH,
+    NORMAL,
+    LOW
+}
@@ -0,0 +1,16 @@
+package com.teknolabs.student_api.admission;
+
+import com.teknolabs.student_api.config.AdmissionProperties;
+
+/**
+ * Token buckets by key, such as {@code client:<address>} or {@code endpoint:search}.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes a token from the bucket of this key, created full with the given rate on first use.
+     *
+     * @return 0 when a token was taken, otherwise how many nanoseconds until the next one
+     */
+    long tryAcquire(String key, AdmissionProperties.Rate rate);
+}
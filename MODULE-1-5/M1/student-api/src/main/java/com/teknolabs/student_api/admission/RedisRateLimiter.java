@@ -0,0 +1,72 @@
+package com.teknolabs.student_api.admission;
+
+import com.teknolabs.student_api.config.AdmissionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets shared by the whole cluster, kept in Redis with the same algorithm as
+ * {@link TokenBucket}: one key per bucket holding the time it is full again, updated by a script
+ * so that taking a token is a single atomic round trip. The time is Redis's own, so nodes with
+ * drifting clocks still agree.
+ * <p>
+ * When Redis cannot be reached the node falls back to its local buckets, and leaves Redis alone
+ * for the retry interval rather than making every request wait on it.
+ */
+@Slf4j
+public class RedisRateLimiter implements RateLimiter {
+
+    // ARGV: microseconds per token, burst tolerance in microseconds. Returns microseconds to wait, 0 when taken.
+    // The time is formatted explicitly: Lua would write a number that large in exponent notation
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+        local time = redis.call('time')
+        local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+        local interval = tonumber(ARGV[1])
+        local start = tonumber(redis.call('get', KEYS[1]) or now)
+        if start < now then start = now end
+        local wait = start - now - tonumber(ARGV[2])
+        if wait > 0 then return math.ceil(wait) end
+        redis.call('set', KEYS[1], string.format('%.0f', start + interval), 'px', math.ceil((start + interval - now) / 1000) + 1)
+        return 0
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final RateLimiter fallback;
+    private final long retryInterval;
+    private volatile long retryAt;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, String keyPrefix, RateLimiter fallback,
+                            Duration retryInterval) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.fallback = fallback;
+        this.retryInterval = retryInterval.toNanos();
+        this.retryAt = System.nanoTime();
+    }
+
+    @Override
+    public long tryAcquire(String key, AdmissionProperties.Rate rate) {
+        if (System.nanoTime() - retryAt < 0) {
+            return fallback.tryAcquire(key, rate);
+        }
+        long interval = Math.max(1, (long) (TimeUnit.SECONDS.toMicros(1) / rate.getRate()));
+        long tolerance = interval * Math.max(0, rate.getBurst() - 1);
+        try {
+            Long wait = redisTemplate.execute(ACQUIRE, List.of(keyPrefix + key),
+                Long.toString(interval), Long.toString(tolerance));
+            return wait == null ? 0 : TimeUnit.MICROSECONDS.toNanos(wait);
+        } catch (RuntimeException ex) {
+            retryAt = System.nanoTime() + retryInterval;
+            log.warn("Could not reach the shared rate limits, using local ones for {} ms",
+                TimeUnit.NANOSECONDS.toMillis(retryInterval), ex);
+            return fallback.tryAcquire(key, rate);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.teknolabs.student_api.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket. Rather than a token count and a refill time, which would have to change
+ * together, the bucket keeps a single value: the time at which it will be full again (the generic
+ * cell rate algorithm). Taking a token pushes that time one interval further; a token is available
+ * as long as the time stays within a burst of intervals from now. One compare-and-set per request.
+ */
+class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final LongSupplier clock;
+    // Nanotime at which the bucket is full again
+    private final AtomicLong fullAt;
+
+    TokenBucket(double ratePerSecond, int burst, LongSupplier clock) {
+        this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.tolerance = interval * Math.max(0, burst - 1);
+        this.clock = clock;
+        this.fullAt = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Takes a token.
+     *
+     * @return 0 when a token was taken, otherwise how many nanoseconds until the next one
+     */
+    long tryAcquire() {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long start = current - now < 0 ? now : current;
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, start + interval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.teknolabs.student_api.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache representation of a {@link Page}. {@code PageImpl} cannot be deserialized from Redis,
+ * and the {@link Pageable} is already part of the cache key, so only the content and total are kept.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedPage<T> {
+    private List<T> content;
+    private long totalElements;
+
+    public static <T> CachedPage<T> of(Page<T> page) {
+        return new CachedPage<>(new ArrayList<>(page.getContent()), page.getTotalElements());
+    }
+
+    public Page<T> toPage(Pageable pageable) {
+        return new PageImpl<>(content, pageable, totalElements);
+    }
+}
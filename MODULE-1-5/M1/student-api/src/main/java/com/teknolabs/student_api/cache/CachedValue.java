@@ -0,0 +1,19 @@
+package com.teknolabs.student_api.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A cached value together with what {@link CoalescingCache} needs to refresh it shortly before
+ * it expires: when it expires and how long it took to compute.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue {
+    private Object value;
+    // Epoch milliseconds
+    private long expiresAt;
+    private long computeMillis;
+}
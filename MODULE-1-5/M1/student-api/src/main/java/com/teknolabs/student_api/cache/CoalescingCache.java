@@ -0,0 +1,359 @@
+package com.teknolabs.student_api.cache;
+
+import com.teknolabs.student_api.datasource.PrimaryReads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a cache so that concurrent misses of the same key on this node share a single load,
+ * and hot entries are reloaded shortly before they expire rather than by every reader at once
+ * when they do.
+ * <p>
+ * Early refresh follows the XFetch scheme: a reader reloads an entry when
+ * {@code now - computeTime * beta * ln(random) >= expiry}. The closer the expiry and the slower the
+ * entry is to compute, the likelier a reader is to do it; only that reader waits for the new value,
+ * the others keep the current one. Values are stored as {@link CachedValue}s carrying their expiry
+ * and compute time, except in caches whose loader must not run again while an entry is valid.
+ * <p>
+ * With a {@link RedisLoadLock}, misses are also coordinated across nodes: the node holding the
+ * lock loads, the others poll the cache until its value shows up or the lock lease runs out.
+ * <p>
+ * Every cache of the application goes through this class, so it also meters them: lookups by
+ * result (hit ratio), puts, evictions, and loads with their duration. Loads read from the primary
+ * database when reads are otherwise routed to replicas.
+ */
+@Slf4j
+public class CoalescingCache implements MultiGetCache {
+
+    private final Cache delegate;
+    private final Duration timeToLive;
+    private final double earlyRefreshBeta;
+    private final RedisLoadLock loadLock;
+    private final Duration lockPollInterval;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer missLoads;
+    private final Timer refreshLoads;
+    private final Counter coalesced;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter evictions;
+
+    /**
+     * @param earlyRefreshBeta XFetch weight; 0 stores values as they are and never refreshes early
+     * @param loadLock         cluster-wide lock, or null to coalesce on this node only
+     */
+    public CoalescingCache(Cache delegate, Duration timeToLive, double earlyRefreshBeta,
+                           RedisLoadLock loadLock, Duration lockPollInterval, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.loadLock = loadLock;
+        this.lockPollInterval = lockPollInterval;
+        this.missLoads = loadTimer(meterRegistry, "miss");
+        this.refreshLoads = loadTimer(meterRegistry, "early-refresh");
+        this.coalesced = Counter.builder("cache.loads.coalesced")
+            .description("Cache misses that waited for a load of the same key already in flight")
+            .tag("cache", delegate.getName())
+            .register(meterRegistry);
+        this.hits = getCounter(meterRegistry, "hit");
+        this.misses = getCounter(meterRegistry, "miss");
+        this.puts = Counter.builder("cache.puts")
+            .description("Values written to the cache by writes rather than loads")
+            .tag("cache", delegate.getName())
+            .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions")
+            .description("Entries evicted by writes")
+            .tag("cache", delegate.getName())
+            .register(meterRegistry);
+    }
+
+    private Timer loadTimer(MeterRegistry meterRegistry, String reason) {
+        return Timer.builder("cache.loads")
+            .description("Values computed by cache loaders, and how long that took")
+            .tag("cache", delegate.getName())
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private Counter getCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+            .description("Cache lookups; waits for a load of the same key count as misses")
+            .tag("cache", delegate.getName())
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new SimpleValueWrapper(unwrap(wrapper.get()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            misses.increment();
+            return (T) unwrap(load(key, valueLoader));
+        }
+        hits.increment();
+        Object stored = wrapper.get();
+        if (stored instanceof CachedValue cached && earlyRefreshBeta > 0 && shouldRefreshEarly(cached)) {
+            return (T) unwrap(refresh(key, valueLoader, cached));
+        }
+        return (T) unwrap(stored);
+    }
+
+    /**
+     * The first caller loads through the delegate, which stores the value; callers missing the
+     * same key meanwhile wait for that load and share its value or its failure.
+     */
+    private Object load(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+        try {
+            Object stored = loadAcrossNodes(key, valueLoader);
+            flight.complete(stored);
+            return stored;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object loadAcrossNodes(Object key, Callable<?> valueLoader) {
+        if (loadLock == null) {
+            return delegate.get(key, () -> compute(valueLoader, missLoads));
+        }
+        String token = loadLock.tryAcquire(getName(), key);
+        if (token == null) {
+            ValueWrapper loadedElsewhere = awaitOtherNode(key);
+            if (loadedElsewhere != null) {
+                return loadedElsewhere.get();
+            }
+            log.debug("Load of {} in cache {} by another node did not finish within the lock lease", key, getName());
+            return delegate.get(key, () -> compute(valueLoader, missLoads));
+        }
+        try {
+            return delegate.get(key, () -> compute(valueLoader, missLoads));
+        } finally {
+            loadLock.release(getName(), key, token);
+        }
+    }
+
+    private ValueWrapper awaitOtherNode(Object key) {
+        long deadline = System.nanoTime() + loadLock.getLease().toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(lockPollInterval);
+                ValueWrapper wrapper = delegate.get(key);
+                if (wrapper != null) {
+                    return wrapper;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Reloads an entry that is about to expire. One caller per key does so; the others, and this
+     * caller if the reload fails, are served the current value.
+     */
+    private Object refresh(Object key, Callable<?> valueLoader, CachedValue current) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return current;
+        }
+        try {
+            Object fresh = compute(valueLoader, refreshLoads);
+            delegate.put(key, fresh);
+            flight.complete(fresh);
+            return fresh;
+        } catch (Exception ex) {
+            log.warn("Early refresh of {} in cache {} failed, keeping the current value", key, getName(), ex);
+            flight.complete(current);
+            return current;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object compute(Callable<?> valueLoader, Timer timer) throws Exception {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            // Cached values are served to every client, so they are never read from a lagging replica
+            value = PrimaryReads.call(valueLoader);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (earlyRefreshBeta <= 0) {
+            return value;
+        }
+        long computeMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new CachedValue(value, System.currentTimeMillis() + timeToLive.toMillis(), computeMillis);
+    }
+
+    // -ln(random) is exponentially distributed: most refreshes happen within a few compute times of the expiry
+    private boolean shouldRefreshEarly(CachedValue cached) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double headStart = cached.getComputeMillis() * earlyRefreshBeta * -Math.log(random);
+        return System.currentTimeMillis() + headStart >= cached.getExpiresAt();
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Multi-key lookup through the delegate, one key at a time if it cannot do better. Entries are
+     * not refreshed early on this path; single-key reads of hot entries take care of that.
+     */
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        Map<Object, ValueWrapper> found;
+        if (delegate instanceof MultiGetCache multiGet) {
+            found = multiGet.getAll(keys);
+        } else {
+            found = new HashMap<>();
+            for (Object key : keys) {
+                ValueWrapper wrapper = delegate.get(key);
+                if (wrapper != null) {
+                    found.put(key, wrapper);
+                }
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(keys.size() - found.size());
+        found.replaceAll((key, wrapper) -> new SimpleValueWrapper(unwrap(wrapper.get())));
+        return found;
+    }
+
+    @Override
+    public Set<Object> putAllIfAbsent(Map<?, ?> values) {
+        Map<Object, Object> wrapped = new LinkedHashMap<>();
+        values.forEach((key, value) -> wrapped.put(key, wrap(value)));
+        if (delegate instanceof MultiGetCache multiGet) {
+            return multiGet.putAllIfAbsent(wrapped);
+        }
+        Set<Object> stored = new HashSet<>();
+        wrapped.forEach((key, value) -> {
+            if (delegate.putIfAbsent(key, value) == null) {
+                stored.add(key);
+            }
+        });
+        return stored;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        puts.increment();
+        delegate.put(key, wrap(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        puts.increment();
+        ValueWrapper existing = delegate.putIfAbsent(key, wrap(value));
+        return existing == null ? null : new SimpleValueWrapper(unwrap(existing.get()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.increment();
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evictions.increment();
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    // Written values were not computed here, so they get no head start and simply expire
+    private Object wrap(Object value) {
+        return earlyRefreshBeta > 0
+            ? new CachedValue(value, System.currentTimeMillis() + timeToLive.toMillis(), 0)
+            : value;
+    }
+
+    private static Object unwrap(Object stored) {
+        return stored instanceof CachedValue cached ? cached.getValue() : stored;
+    }
+}
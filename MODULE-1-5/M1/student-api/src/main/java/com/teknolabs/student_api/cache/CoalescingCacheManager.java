@@ -0,0 +1,62 @@
+package com.teknolabs.student_api.cache;
+
+import com.teknolabs.student_api.config.StudentCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of another cache manager in a {@link CoalescingCache}.
+ */
+public class CoalescingCacheManager implements CacheManager {
+
+    // A new generation invalidates every cached query, so generations are never recomputed early
+    private static final Set<String> NO_EARLY_REFRESH = Set.of(StudentQueryCache.GENERATIONS);
+
+    private final CacheManager delegate;
+    private final StudentCacheProperties properties;
+    private final RedisLoadLock loadLock;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CoalescingCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param loadLock cluster-wide lock around loads, or null to coalesce on this node only
+     */
+    public CoalescingCacheManager(CacheManager delegate, StudentCacheProperties properties,
+                                  RedisLoadLock loadLock, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.loadLock = loadLock;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        CoalescingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> createCache(target));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private CoalescingCache createCache(Cache target) {
+        StudentCacheProperties.Load load = properties.getLoad();
+        double beta = NO_EARLY_REFRESH.contains(target.getName()) ? 0 : load.getEarlyRefreshBeta();
+        return new CoalescingCache(target, properties.getTimeToLive(), beta, loadLock,
+            load.getLockPollInterval(), meterRegistry);
+    }
+}
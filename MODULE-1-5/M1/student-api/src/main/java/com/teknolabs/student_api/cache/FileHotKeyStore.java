@@ -0,0 +1,49 @@
+package com.teknolabs.student_api.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Hot keys in a local text file, one key per line. Written to a temporary file first and moved
+ * over the previous one, so a crash while saving leaves the previous keys.
+ */
+final class FileHotKeyStore implements HotKeyStore {
+
+    private final Path file;
+
+    FileHotKeyStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public List<String> load() {
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isEmpty())
+                .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read hot keys from " + file, ex);
+        }
+    }
+
+    @Override
+    public void save(List<String> hotKeys) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(temporary, hotKeys, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write hot keys to " + file, ex);
+        }
+    }
+}
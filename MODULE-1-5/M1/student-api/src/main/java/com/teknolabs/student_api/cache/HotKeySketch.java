@@ -0,0 +1,133 @@
+package com.teknolabs.student_api.cache;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate access counts in fixed memory: a count-min sketch (four rows of counters, conservative
+ * update) estimates how often any key was seen, and only keys whose estimate reaches the current top
+ * are kept as candidates. Estimates never undercount; a key can be overcounted when it collides with
+ * hotter keys in every row, which the width keeps rare.
+ * <p>
+ * Safe for concurrent use. {@link #decay()} halves every count, so old traffic fades out.
+ */
+final class HotKeySketch {
+
+    private static final int DEPTH = 4;
+
+    private final AtomicIntegerArray counters;
+    private final int mask;
+    private final int capacity;
+    private final Map<String, Integer> candidates = new ConcurrentHashMap<>();
+
+    // Estimate a key needs to become a candidate once there are more than capacity of them
+    private volatile int threshold;
+
+    /**
+     * @param width    counters per row, rounded up to a power of two
+     * @param capacity number of hot keys to report
+     */
+    HotKeySketch(int width, int capacity) {
+        if (width < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Width and capacity must be positive");
+        }
+        int rowSize = Integer.highestOneBit(width) == width ? width : Integer.highestOneBit(width) << 1;
+        this.counters = new AtomicIntegerArray(DEPTH * rowSize);
+        this.mask = rowSize - 1;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Counts one access of the key.
+     */
+    void record(String key) {
+        int hash = key.hashCode();
+        int h1 = spread(hash);
+        int h2 = spread(hash * 0x9E3779B9) | 1;
+        int current = minimum(h1, h2);
+        // Conservative update: counters already above the new estimate were raised by other keys
+        int estimate = current == Integer.MAX_VALUE ? current : current + 1;
+        for (int row = 0; row < DEPTH; row++) {
+            counters.accumulateAndGet(index(row, h1, h2), estimate, Math::max);
+        }
+        if (estimate >= threshold || candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+            if (candidates.size() > 2 * capacity) {
+                trim();
+            }
+        }
+    }
+
+    /**
+     * Estimated number of accesses of the key since it was last decayed.
+     */
+    int estimate(String key) {
+        int hash = key.hashCode();
+        int h1 = spread(hash);
+        int h2 = spread(hash * 0x9E3779B9) | 1;
+        return minimum(h1, h2);
+    }
+
+    /**
+     * Hottest keys first, at most {@code limit} of them.
+     */
+    List<String> top(int limit) {
+        return candidates.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+            .limit(Math.min(limit, capacity))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    boolean isEmpty() {
+        return candidates.isEmpty();
+    }
+
+    /**
+     * Halves every count. Candidates whose count drops to zero are forgotten.
+     */
+    synchronized void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        candidates.replaceAll((key, count) -> count >>> 1);
+        candidates.values().removeIf(count -> count == 0);
+        threshold >>>= 1;
+    }
+
+    // Keeps the top capacity candidates; the coldest of them sets the bar for new ones
+    private synchronized void trim() {
+        if (candidates.size() <= 2 * capacity) {
+            return;
+        }
+        List<Map.Entry<String, Integer>> ranked = candidates.entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+            .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+            .toList();
+        ranked.subList(capacity, ranked.size()).forEach(entry -> candidates.remove(entry.getKey(), entry.getValue()));
+        threshold = ranked.get(capacity - 1).getValue();
+    }
+
+    private int minimum(int h1, int h2) {
+        int minimum = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            minimum = Math.min(minimum, counters.get(index(row, h1, h2)));
+        }
+        return minimum;
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+}
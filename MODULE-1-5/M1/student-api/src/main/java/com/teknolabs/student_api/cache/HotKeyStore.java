@@ -0,0 +1,20 @@
+package com.teknolabs.student_api.cache;
+
+import java.util.List;
+
+/**
+ * Where the hot keys are kept between restarts: in Redis, shared by every node, or in a local file
+ * for single nodes with a persistent volume.
+ */
+interface HotKeyStore {
+
+    /**
+     * Hot keys saved last, hottest first; empty if none were saved yet.
+     */
+    List<String> load();
+
+    /**
+     * Replaces the saved hot keys.
+     */
+    void save(List<String> hotKeys);
+}
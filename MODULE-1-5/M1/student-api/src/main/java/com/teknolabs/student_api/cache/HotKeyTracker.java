@@ -0,0 +1,168 @@
+package com.teknolabs.student_api.cache;
+
+import com.teknolabs.student_api.config.StudentCacheProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Which students and searches are requested most, so that a restarted node can load them before
+ * taking traffic. Reads are counted in a {@link HotKeySketch}; every save interval the hottest keys
+ * are saved to the configured store and the counts are halved.
+ * <p>
+ * Keys are {@code id:<student id>} and {@code search:<page size>:<terms>} (first pages only).
+ */
+@Slf4j
+@Component
+public class HotKeyTracker {
+
+    private static final String STUDENT = "id:";
+    private static final String SEARCH = "search:";
+
+    @Autowired
+    private StudentCacheProperties cacheProperties;
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    private StudentCacheProperties.HotKeys properties;
+    private HotKeySketch sketch;
+    private HotKeyStore store;
+    private ScheduledExecutorService scheduler;
+
+    public record Search(String terms, int size) {
+    }
+
+    public record HotKeys(List<Long> studentIds, List<Search> searches) {
+
+        public boolean isEmpty() {
+            return studentIds.isEmpty() && searches.isEmpty();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        properties = cacheProperties.getWarmUp().getHotKeys();
+        if (!properties.isEnabled()) {
+            return;
+        }
+        sketch = new HotKeySketch(properties.getSketchWidth(), properties.getSize());
+        store = switch (properties.getStore()) {
+            case REDIS -> new RedisHotKeyStore(redisTemplate.getObject(), properties.getRedisKey());
+            case FILE -> new FileHotKeyStore(properties.getFile());
+            case NONE -> null;
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (store == null) {
+            return;
+        }
+        long interval = properties.getSaveInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-hot-keys");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::saveQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            // Graceful shutdown: keep what was counted since the last save
+            saveQuietly();
+        }
+    }
+
+    public void studentRead(Long id) {
+        if (sketch != null && id != null) {
+            sketch.record(STUDENT + id);
+        }
+    }
+
+    /**
+     * Counts a search; only first pages are warmed, later ones are rarely requested again.
+     */
+    public void searched(String terms, int page, int size) {
+        if (sketch != null && page == 0 && terms.indexOf('\n') < 0) {
+            sketch.record(SEARCH + size + ":" + terms);
+        }
+    }
+
+    /**
+     * Hottest keys counted by this node, hottest first.
+     */
+    public HotKeys hotKeys() {
+        return sketch == null ? parse(List.of()) : parse(sketch.top(properties.getSize()));
+    }
+
+    /**
+     * Hot keys saved last, by this node or another; empty without a store or when it cannot be read.
+     */
+    public HotKeys savedHotKeys() {
+        if (store == null) {
+            return parse(List.of());
+        }
+        try {
+            return parse(store.load());
+        } catch (RuntimeException ex) {
+            log.warn("Could not read the saved hot cache keys", ex);
+            return parse(List.of());
+        }
+    }
+
+    /**
+     * Saves the current hot keys and halves their counts. Nothing is saved until something was
+     * counted, so a node restarted without traffic keeps the keys saved before.
+     */
+    public void save() {
+        if (store == null || sketch.isEmpty()) {
+            return;
+        }
+        store.save(sketch.top(properties.getSize()));
+        sketch.decay();
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (RuntimeException ex) {
+            log.warn("Could not save hot cache keys", ex);
+        }
+    }
+
+    private static HotKeys parse(List<String> keys) {
+        List<Long> studentIds = new ArrayList<>();
+        List<Search> searches = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                if (key.startsWith(STUDENT)) {
+                    studentIds.add(Long.parseLong(key.substring(STUDENT.length())));
+                } else if (key.startsWith(SEARCH)) {
+                    int separator = key.indexOf(':', SEARCH.length());
+                    searches.add(new Search(key.substring(separator + 1),
+                        Integer.parseInt(key.substring(SEARCH.length(), separator))));
+                }
+            } catch (RuntimeException ex) {
+                // Saved by another version or edited by hand: skip it
+                log.debug("Ignoring hot key {}", key);
+            }
+        }
+        return new HotKeys(studentIds, searches);
+    }
+}
@@ -0,0 +1,53 @@
+package com.teknolabs.student_api.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the size of every value written to Redis, by value type ({@code Student},
+ * {@code CachedPage}, ...), so the effect of the serialization format on payloads is visible.
+ */
+public class MeteredRedisSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, DistributionSummary> sizes = new ConcurrentHashMap<>();
+
+    public MeteredRedisSerializer(RedisSerializer<Object> delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes != null) {
+            sizes.computeIfAbsent(type(value), this::sizeSummary).record(bytes.length);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return delegate.deserialize(bytes);
+    }
+
+    private DistributionSummary sizeSummary(Class<?> type) {
+        return DistributionSummary.builder("cache.payload.size")
+            .description("Serialized size of the values written to Redis")
+            .baseUnit("bytes")
+            .tag("type", type == Void.class ? "null" : type.getSimpleName())
+            .register(meterRegistry);
+    }
+
+    // Early-refresh wrappers are tagged with the type they carry
+    private static Class<?> type(Object value) {
+        Object payload = value instanceof CachedValue cached ? cached.getValue() : value;
+        return payload == null ? Void.class : payload.getClass();
+    }
+}
@@ -0,0 +1,28 @@
+package com.teknolabs.student_api.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache that reads and fills many keys in one round trip, for multi-id lookups.
+ */
+public interface MultiGetCache extends Cache {
+
+    /**
+     * Entries present for the given keys; keys without one are left out. A cached null comes back
+     * as a wrapper of null.
+     */
+    Map<Object, ValueWrapper> getAll(Collection<?> keys);
+
+    /**
+     * Stores values loaded from the database under keys that have no entry yet, so a value written
+     * meanwhile is not overwritten. Like values loaded through {@link #get(Object, java.util.concurrent.Callable)},
+     * they are not broadcast to other nodes.
+     *
+     * @return the keys that were stored
+     */
+    Set<Object> putAllIfAbsent(Map<?, ?> values);
+}
@@ -0,0 +1,86 @@
+package com.teknolabs.student_api.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis cache with multi-key operations: one {@code MGET} for reads, and {@code SET NX} commands
+ * sent in one pipeline for writes. Keys and values are encoded exactly as the single-key
+ * operations encode them.
+ */
+public class MultiGetRedisCache extends RedisCache implements MultiGetCache {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    protected MultiGetRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                                 RedisConnectionFactory connectionFactory) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        List<Object> keyList = new ArrayList<>(keys);
+        Map<Object, ValueWrapper> found = new HashMap<>();
+        if (keyList.isEmpty()) {
+            return found;
+        }
+        byte[][] rawKeys = keyList.stream().map(this::rawKey).toArray(byte[][]::new);
+        List<byte[]> rawValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            rawValues = connection.stringCommands().mGet(rawKeys);
+        }
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] rawValue = rawValues == null ? null : rawValues.get(i);
+            if (rawValue != null) {
+                found.put(keyList.get(i), toValueWrapper(deserializeCacheValue(rawValue)));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Set<Object> putAllIfAbsent(Map<?, ?> values) {
+        List<Object> keyList = new ArrayList<>(values.keySet());
+        Set<Object> stored = new HashSet<>();
+        if (keyList.isEmpty()) {
+            return stored;
+        }
+        List<Object> results;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            for (Object key : keyList) {
+                Object value = values.get(key);
+                Duration ttl = getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+                connection.stringCommands().set(rawKey(key), serializeCacheValue(toStoreValue(value)),
+                    ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                    RedisStringCommands.SetOption.ifAbsent());
+            }
+            results = connection.closePipeline();
+        }
+        for (int i = 0; i < keyList.size() && i < results.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                stored.add(keyList.get(i));
+            }
+        }
+        return stored;
+    }
+
+    private byte[] rawKey(Object key) {
+        return serializeCacheKey(createCacheKey(key));
+    }
+}
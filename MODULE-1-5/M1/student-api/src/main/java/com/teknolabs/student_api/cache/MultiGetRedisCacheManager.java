@@ -0,0 +1,25 @@
+package com.teknolabs.student_api.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * Redis cache manager whose caches are {@link MultiGetRedisCache}s.
+ */
+public class MultiGetRedisCacheManager extends RedisCacheManager {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    public MultiGetRedisCacheManager(RedisConnectionFactory connectionFactory, RedisCacheConfiguration defaultConfiguration) {
+        super(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), defaultConfiguration);
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new MultiGetRedisCache(name, getCacheWriter(), cacheConfiguration, connectionFactory);
+    }
+}
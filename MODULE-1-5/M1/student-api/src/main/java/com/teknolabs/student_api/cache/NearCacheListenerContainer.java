@@ -0,0 +1,47 @@
+package com.teknolabs.student_api.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener container for near cache invalidations that does not hold up startup when Redis
+ * is unreachable. The subscription is retried in the background; until it succeeds, local
+ * entries are only bounded by the L1 time to live.
+ */
+@Slf4j
+public class NearCacheListenerContainer extends RedisMessageListenerContainer {
+
+    private final Duration retryInterval;
+    private volatile boolean destroyed;
+
+    public NearCacheListenerContainer(Duration retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public void start() {
+        try {
+            super.start();
+        } catch (RuntimeException ex) {
+            log.warn("Near cache invalidation channel unavailable, retrying in {}: {}", retryInterval, ex.getMessage());
+            // The container flags itself as started before subscribing, so reset it for the next attempt
+            super.stop();
+            CompletableFuture.delayedExecutor(retryInterval.toMillis(), TimeUnit.MILLISECONDS)
+                .execute(() -> {
+                    if (!destroyed) {
+                        start();
+                    }
+                });
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        destroyed = true;
+        super.destroy();
+    }
+}
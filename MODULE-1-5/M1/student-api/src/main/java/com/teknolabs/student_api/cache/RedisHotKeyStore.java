@@ -0,0 +1,31 @@
+package com.teknolabs.student_api.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+/**
+ * Hot keys in one Redis string, one key per line. Every node saves the keys it sees, the last save
+ * wins; traffic is spread evenly enough across nodes for any of them to be representative.
+ */
+final class RedisHotKeyStore implements HotKeyStore {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String key;
+
+    RedisHotKeyStore(StringRedisTemplate redisTemplate, String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    @Override
+    public List<String> load() {
+        String saved = redisTemplate.opsForValue().get(key);
+        return saved == null || saved.isEmpty() ? List.of() : List.of(saved.split("\n"));
+    }
+
+    @Override
+    public void save(List<String> hotKeys) {
+        redisTemplate.opsForValue().set(key, String.join("\n", hotKeys));
+    }
+}
@@ -0,0 +1,64 @@
+package com.teknolabs.student_api.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cluster-wide lock around cache loads: {@code SET NX PX} with a random token, released only by
+ * its owner. The lease bounds how long a crashed or stuck node can hold up the others.
+ */
+@Slf4j
+public class RedisLoadLock {
+
+    private static final String PREFIX = "student-api:load-lock:";
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration lease;
+
+    public RedisLoadLock(StringRedisTemplate redisTemplate, Duration lease) {
+        this.redisTemplate = redisTemplate;
+        this.lease = lease;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    /**
+     * Returns the token to release the lock with, or null when another node holds it.
+     * If Redis cannot be reached the caller gets a token anyway and loads without coordination.
+     */
+    public String tryAcquire(String cacheName, Object key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token, lease);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException ex) {
+            log.debug("Could not take the load lock for {} in cache {}, loading without it", key, cacheName, ex);
+            return token;
+        }
+    }
+
+    public void release(String cacheName, Object key, String token) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(lockKey(cacheName, key)), token);
+        } catch (RuntimeException ex) {
+            // The lease expires on its own
+            log.debug("Could not release the load lock for {} in cache {}", key, cacheName, ex);
+        }
+    }
+
+    private static String lockKey(String cacheName, Object key) {
+        return PREFIX + cacheName + ":" + key;
+    }
+}
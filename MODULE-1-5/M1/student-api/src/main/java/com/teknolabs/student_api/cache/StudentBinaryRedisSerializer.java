@@ -0,0 +1,375 @@
+package com.teknolabs.student_api.cache;
+
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of the values cached in Redis: students, lists of students, cached
+ * pages of students and the generation strings of {@link StudentQueryCache}, also when wrapped
+ * in a {@link CachedValue}.
+ * <p>
+ * Every value starts with a marker byte, the layout version and a type tag. Student fields are
+ * written in a fixed order behind a bit set of the non-null ones: numbers as varints, dates as
+ * epoch days, timestamps as UTC epoch seconds plus nanos, the status as a one-byte code. Values
+ * of any other type are stored as JSON by the fallback serializer, which also reads entries
+ * written before this serializer was enabled. An entry written with an unknown layout version
+ * (by a newer or older node), or one that cannot be read (truncated or corrupt), is reported as
+ * a cache miss, so it is reloaded and overwritten instead of failing every read until it expires.
+ */
+@Slf4j
+public class StudentBinaryRedisSerializer implements RedisSerializer<Object> {
+
+    // Never the first byte of a JSON document, so binary and JSON entries can be told apart
+    static final byte MARKER = (byte) 0xB5;
+    // 2: students carry their @Version
+    static final byte VERSION = 2;
+
+    private static final byte TYPE_STUDENT = 1;
+    private static final byte TYPE_LIST = 2;
+    private static final byte TYPE_PAGE = 3;
+    private static final byte TYPE_STRING = 4;
+    private static final byte TYPE_JSON = 5;
+    private static final byte TYPE_CACHED_VALUE = 6;
+    private static final byte TYPE_NULL = 7;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_EMAIL = 1 << 2;
+    private static final int HAS_DATE_OF_BIRTH = 1 << 3;
+    private static final int HAS_PHONE_NUMBER = 1 << 4;
+    private static final int HAS_STATUS = 1 << 5;
+    private static final int HAS_CREATED_DATE = 1 << 6;
+    private static final int HAS_LAST_MODIFIED_DATE = 1 << 7;
+    private static final int HAS_CREATED_BY = 1 << 8;
+    private static final int HAS_LAST_MODIFIED_BY = 1 << 9;
+    private static final int HAS_VERSION = 1 << 10;
+
+    private final RedisSerializer<Object> fallback;
+
+    public StudentBinaryRedisSerializer(RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Output out = new Output();
+        out.writeByte(MARKER);
+        out.writeByte(VERSION);
+        writeValue(out, value);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MARKER) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < 2 || bytes[1] != VERSION) {
+            log.debug("Ignoring cache entry written with layout version {}", bytes.length < 2 ? "none" : bytes[1]);
+            return null;
+        }
+        Input in = new Input(bytes);
+        in.readByte();
+        in.readByte();
+        try {
+            return readValue(in);
+        } catch (RuntimeException ex) {
+            // Unknown type or status codes, truncated entries, malformed varints and unreadable JSON
+            log.debug("Ignoring unreadable cache entry: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof Student student) {
+            out.writeByte(TYPE_STUDENT);
+            writeStudent(out, student);
+        } else if (value instanceof String string) {
+            out.writeByte(TYPE_STRING);
+            out.writeString(string);
+        } else if (value instanceof List<?> list && containsOnlyStudents(list)) {
+            out.writeByte(TYPE_LIST);
+            writeStudents(out, list);
+        } else if (value instanceof CachedPage<?> page && containsOnlyStudents(page.getContent())) {
+            out.writeByte(TYPE_PAGE);
+            out.writeVarLong(page.getTotalElements());
+            writeStudents(out, page.getContent());
+        } else if (value instanceof CachedValue cached) {
+            // The wrapped value comes last, so a JSON fallback inside it can still take the rest
+            out.writeByte(TYPE_CACHED_VALUE);
+            out.writeVarLong(cached.getExpiresAt());
+            out.writeVarLong(cached.getComputeMillis());
+            writeValue(out, cached.getValue());
+        } else {
+            out.writeByte(TYPE_JSON);
+            out.writeBytes(fallback.serialize(value));
+        }
+    }
+
+    private Object readValue(Input in) {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_NULL -> null;
+            case TYPE_STUDENT -> readStudent(in);
+            case TYPE_STRING -> in.readString();
+            case TYPE_LIST -> readStudents(in);
+            case TYPE_PAGE -> {
+                long totalElements = in.readVarLong();
+                yield new CachedPage<>(readStudents(in), totalElements);
+            }
+            case TYPE_CACHED_VALUE -> {
+                long expiresAt = in.readVarLong();
+                long computeMillis = in.readVarLong();
+                yield new CachedValue(readValue(in), expiresAt, computeMillis);
+            }
+            case TYPE_JSON -> fallback.deserialize(in.readRemaining());
+            default -> throw new UnsupportedLayoutException("Unknown value type " + type);
+        };
+    }
+
+    private static boolean containsOnlyStudents(List<?> values) {
+        for (Object value : values) {
+            if (!(value instanceof Student)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeStudents(Output out, List<?> students) {
+        out.writeVarLong(students.size());
+        for (Object student : students) {
+            writeStudent(out, (Student) student);
+        }
+    }
+
+    private static List<Student> readStudents(Input in) {
+        int size = (int) in.readVarLong();
+        List<Student> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(readStudent(in));
+        }
+        return students;
+    }
+
+    private static void writeStudent(Output out, Student student) {
+        int fields = (student.getId() != null ? HAS_ID : 0)
+            | (student.getName() != null ? HAS_NAME : 0)
+            | (student.getEmail() != null ? HAS_EMAIL : 0)
+            | (student.getDateOfBirth() != null ? HAS_DATE_OF_BIRTH : 0)
+            | (student.getPhoneNumber() != null ? HAS_PHONE_NUMBER : 0)
+            | (student.getStatus() != null ? HAS_STATUS : 0)
+            | (student.getCreatedDate() != null ? HAS_CREATED_DATE : 0)
+            | (student.getLastModifiedDate() != null ? HAS_LAST_MODIFIED_DATE : 0)
+            | (student.getCreatedBy() != null ? HAS_CREATED_BY : 0)
+            | (student.getLastModifiedBy() != null ? HAS_LAST_MODIFIED_BY : 0)
+            | (student.getVersion() != null ? HAS_VERSION : 0);
+        out.writeVarLong(fields);
+        if (student.getId() != null) {
+            out.writeVarLong(student.getId());
+        }
+        if (student.getName() != null) {
+            out.writeString(student.getName());
+        }
+        if (student.getEmail() != null) {
+            out.writeString(student.getEmail());
+        }
+        if (student.getDateOfBirth() != null) {
+            out.writeSignedVarLong(student.getDateOfBirth().toEpochDay());
+        }
+        if (student.getPhoneNumber() != null) {
+            out.writeString(student.getPhoneNumber());
+        }
+        if (student.getStatus() != null) {
+            writeStatus(out, student.getStatus());
+        }
+        if (student.getCreatedDate() != null) {
+            writeDateTime(out, student.getCreatedDate());
+        }
+        if (student.getLastModifiedDate() != null) {
+            writeDateTime(out, student.getLastModifiedDate());
+        }
+        if (student.getCreatedBy() != null) {
+            out.writeString(student.getCreatedBy());
+        }
+        if (student.getLastModifiedBy() != null) {
+            out.writeString(student.getLastModifiedBy());
+        }
+        if (student.getVersion() != null) {
+            out.writeVarLong(student.getVersion());
+        }
+    }
+
+    private static Student readStudent(Input in) {
+        long fields = in.readVarLong();
+        Student student = new Student();
+        student.setId((fields & HAS_ID) != 0 ? in.readVarLong() : null);
+        student.setName((fields & HAS_NAME) != 0 ? in.readString() : null);
+        student.setEmail((fields & HAS_EMAIL) != 0 ? in.readString() : null);
+        student.setDateOfBirth((fields & HAS_DATE_OF_BIRTH) != 0 ? LocalDate.ofEpochDay(in.readSignedVarLong()) : null);
+        student.setPhoneNumber((fields & HAS_PHONE_NUMBER) != 0 ? in.readString() : null);
+        student.setStatus((fields & HAS_STATUS) != 0 ? readStatus(in) : null);
+        student.setCreatedDate((fields & HAS_CREATED_DATE) != 0 ? readDateTime(in) : null);
+        student.setLastModifiedDate((fields & HAS_LAST_MODIFIED_DATE) != 0 ? readDateTime(in) : null);
+        student.setCreatedBy((fields & HAS_CREATED_BY) != 0 ? in.readString() : null);
+        student.setLastModifiedBy((fields & HAS_LAST_MODIFIED_BY) != 0 ? in.readString() : null);
+        student.setVersion((fields & HAS_VERSION) != 0 ? in.readVarLong() : null);
+        return student;
+    }
+
+    // Fixed codes rather than ordinals, so reordering the enum cannot change cached meanings
+    private static void writeStatus(Output out, StudentStatus status) {
+        byte code = switch (status) {
+            case ACTIVE -> 1;
+            case INACTIVE -> 2;
+            case GRADUATED -> 3;
+            case SUSPENDED -> 4;
+        };
+        out.writeByte(code);
+    }
+
+    private static StudentStatus readStatus(Input in) {
+        byte code = in.readByte();
+        return switch (code) {
+            case 1 -> StudentStatus.ACTIVE;
+            case 2 -> StudentStatus.INACTIVE;
+            case 3 -> StudentStatus.GRADUATED;
+            case 4 -> StudentStatus.SUSPENDED;
+            default -> throw new UnsupportedLayoutException("Unknown status code " + code);
+        };
+    }
+
+    private static void writeDateTime(Output out, LocalDateTime dateTime) {
+        out.writeSignedVarLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeVarLong(dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(Input in) {
+        long epochSecond = in.readSignedVarLong();
+        int nano = (int) in.readVarLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * The entry was written by a layout this node does not understand.
+     */
+    private static class UnsupportedLayoutException extends RuntimeException {
+        UnsupportedLayoutException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Output {
+
+        private byte[] buffer = new byte[128];
+        private int size;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            if (position >= bytes.length) {
+                throw new SerializationException("Truncated cache entry");
+            }
+            return bytes[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in cache entry");
+        }
+
+        long readSignedVarLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > bytes.length) {
+                throw new SerializationException("Truncated cache entry");
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        byte[] readRemaining() {
+            byte[] remaining = Arrays.copyOfRange(bytes, position, bytes.length);
+            position = bytes.length;
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.teknolabs.student_api.cache;
+
+import com.teknolabs.student_api.config.StudentCacheProperties;
+import com.teknolabs.student_api.datasource.PrimaryReads;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.repository.StudentRepository;
+import com.teknolabs.student_api.service.StudentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the caches once the application has started. Readiness is only reported after the ready
+ * listeners have run, so traffic is not routed here until this is done or the time budget is spent.
+ * <p>
+ * The hot keys saved by {@link HotKeyTracker} are loaded in parallel batches, hottest first: students
+ * into the entity cache, searches as their first page. Without saved hot keys the first students by
+ * id are loaded instead. Entries go through the cache's load path: keys another node already cached
+ * are left alone (and only copied into the near cache), missing ones are stored without invalidating
+ * other nodes.
+ */
+@Slf4j
+@Component
+public class StudentCacheWarmer {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private StudentCacheProperties cacheProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        StudentCacheProperties.WarmUp warmUp = cacheProperties.getWarmUp();
+        if (!warmUp.isEnabled()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            HotKeyTracker.HotKeys hotKeys = hotKeyTracker.savedHotKeys();
+            int warmed = hotKeys.isEmpty() ? warmUp(warmUp.getStudents()) : warmUp(hotKeys);
+            Counter.builder("student.cache.warm-up.entries")
+                .description("Cache entries loaded by the startup warm-up")
+                .register(meterRegistry)
+                .increment(warmed);
+            log.info("Cache warm-up: {} entries ({}) in {} ms", warmed,
+                hotKeys.isEmpty() ? "first students" : "hot keys",
+                TimeUnit.NANOSECONDS.toMillis(sample.stop(timer("complete"))));
+        } catch (RuntimeException ex) {
+            sample.stop(timer("failed"));
+            // A cold cache is slower, not wrong: report ready anyway
+            log.warn("Cache warm-up failed, starting with a cold cache", ex);
+        }
+    }
+
+    /**
+     * Loads the first students by id, in one query, into the entity cache.
+     *
+     * @return the number of students loaded
+     */
+    public int warmUp(int students) {
+        if (students <= 0) {
+            return 0;
+        }
+        List<Student> loaded = PrimaryReads.get(() -> studentRepository.findNextById(0L, Limit.of(students)));
+        return cacheStudents(loaded);
+    }
+
+    /**
+     * Loads the given students and searches, {@code concurrency} batches at a time, within the time
+     * budget. Batches not finished by then are cancelled.
+     *
+     * @return the number of students and searches loaded
+     */
+    public int warmUp(HotKeyTracker.HotKeys hotKeys) {
+        StudentCacheProperties.WarmUp warmUp = cacheProperties.getWarmUp();
+        List<Callable<Integer>> batches = new ArrayList<>();
+        List<Long> ids = hotKeys.studentIds();
+        int batchSize = Math.max(1, warmUp.getBatchSize());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            batches.add(() -> cacheStudents(PrimaryReads.get(() -> studentRepository.findAllById(batch))));
+        }
+        for (HotKeyTracker.Search search : hotKeys.searches()) {
+            batches.add(() -> {
+                studentService.searchStudents(search.terms(), PageRequest.of(0, search.size()));
+                return 1;
+            });
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, warmUp.getConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            int warmed = 0;
+            for (Future<Integer> batch : executor.invokeAll(batches, warmUp.getTimeBudget().toMillis(), TimeUnit.MILLISECONDS)) {
+                try {
+                    warmed += batch.get();
+                } catch (CancellationException ex) {
+                    // Out of time budget
+                } catch (ExecutionException ex) {
+                    log.debug("Cache warm-up batch failed", ex.getCause());
+                }
+            }
+            return warmed;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int cacheStudents(List<Student> students) {
+        Cache entities = cacheManager.getCache(StudentQueryCache.ENTITIES);
+        if (entities == null) {
+            return 0;
+        }
+        for (Student student : students) {
+            entities.get(student.getId(), () -> student);
+        }
+        return students.size();
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder("student.cache.warm-up")
+            .description("Time spent warming the caches at startup")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
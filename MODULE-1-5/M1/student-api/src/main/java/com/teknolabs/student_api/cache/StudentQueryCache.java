@@ -0,0 +1,165 @@
+package com.teknolabs.student_api.cache;
+
+import com.teknolabs.student_api.model.Student;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Caching for student list and page queries. Each query shape has its own cache, and every key
+ * carries the current generation of the students namespace. A write only has to replace that
+ * generation (a single cache put) for all earlier list and page entries to become unreachable;
+ * they are then dropped by the cache time to live, so no key scan is ever needed.
+ */
+@Component
+public class StudentQueryCache {
+
+    public static final String ENTITIES = "students";
+    public static final String ALL = "students.all";
+    public static final String PAGES = "students.pages";
+    public static final String BY_STATUS = "students.byStatus";
+    public static final String SEARCH = "students.search";
+    public static final String BY_NAME = "students.byName";
+    public static final String GENERATIONS = "students.generations";
+
+    public static final List<String> CACHE_NAMES = List.of(ENTITIES, ALL, PAGES, BY_STATUS, SEARCH, BY_NAME, GENERATIONS);
+
+    private static final String TAG = "students";
+
+    private final CacheManager cacheManager;
+
+    public StudentQueryCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public <T> List<T> list(String cacheName, Object criteria, Supplier<List<T>> loader) {
+        String key = generation() + ":" + criteria;
+        return cache(cacheName).get(key, loader::get);
+    }
+
+    public <T> Page<T> page(String cacheName, Object criteria, Pageable pageable, Supplier<Page<T>> loader) {
+        String key = generation() + ":" + pageKey(pageable) + ":" + criteria;
+        CachedPage<T> cached = cache(cacheName).get(key, () -> CachedPage.of(loader.get()));
+        return cached.toPage(pageable);
+    }
+
+    /**
+     * Invalidates every list and page entry. Inside a transaction the new generation is only
+     * published after commit, so a concurrent reader cannot cache pre-commit data under it.
+     */
+    public void invalidateQueries() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(GENERATIONS).put(TAG, newGeneration());
+                }
+            });
+        } else {
+            cache(GENERATIONS).put(TAG, newGeneration());
+        }
+    }
+
+    /**
+     * Drops the given students from the entity cache, for writes that bypass the annotated service methods.
+     */
+    public void evictStudents(Collection<Long> ids) {
+        Cache entities = cache(ENTITIES);
+        ids.forEach(entities::evict);
+    }
+
+    /**
+     * Puts the given students into the entity cache, as reads through the service would.
+     */
+    public void cacheStudents(Collection<Student> students) {
+        Cache entities = cache(ENTITIES);
+        students.forEach(student -> entities.put(student.getId(), student));
+    }
+
+    /**
+     * Cached students among the given ids, read in one round trip. Ids cached as having no student
+     * map to null; ids not cached at all are left out.
+     */
+    public Map<Long, Student> cachedStudents(Collection<Long> ids) {
+        Cache entities = cache(ENTITIES);
+        Map<Long, Student> found = new HashMap<>();
+        if (entities instanceof MultiGetCache multiGet) {
+            multiGet.getAll(ids).forEach((key, wrapper) -> found.put((Long) key, (Student) wrapper.get()));
+        } else {
+            for (Long id : ids) {
+                Cache.ValueWrapper wrapper = entities.get(id);
+                if (wrapper != null) {
+                    found.put(id, (Student) wrapper.get());
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Puts students just read from the database into the entity cache, in one round trip, unless a
+     * write cached them meanwhile.
+     */
+    public void cacheLoadedStudents(Collection<Student> students) {
+        Cache entities = cache(ENTITIES);
+        Map<Long, Student> values = new LinkedHashMap<>();
+        students.forEach(student -> values.put(student.getId(), student));
+        if (entities instanceof MultiGetCache multiGet) {
+            multiGet.putAllIfAbsent(values);
+        } else {
+            values.forEach(entities::putIfAbsent);
+        }
+    }
+
+    /**
+     * Current generation of the students namespace. It changes with every write, so it also serves
+     * as the validator (ETag) of list responses, checkable without building the list.
+     */
+    public String generation() {
+        return cache(GENERATIONS).get(TAG, StudentQueryCache::newGeneration);
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + name + "' is not configured");
+        }
+        return cache;
+    }
+
+    private static String newGeneration() {
+        // Random rather than incremented: two nodes bumping at once must not end up on the same value
+        return UUID.randomUUID().toString();
+    }
+
+    static String pageKey(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return "unpaged:" + sortKey(pageable.getSort());
+        }
+        return pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + sortKey(pageable.getSort());
+    }
+
+    private static String sortKey(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "unsorted";
+        }
+        return sort.stream()
+            .map(order -> order.getProperty() + "," + order.getDirection()
+                + (order.isIgnoreCase() ? ",ic" : "") + "," + order.getNullHandling())
+            .collect(Collectors.joining(";"));
+    }
+}
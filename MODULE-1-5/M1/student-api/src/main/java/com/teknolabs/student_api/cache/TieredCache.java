@@ -0,0 +1,285 @@
+package com.teknolabs.student_api.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Two-level cache: a bounded in-process cache (L1) in front of a shared cache (L2, Redis).
+ * Reads are served from L1 when possible and fall back to L2, populating L1 on the way back.
+ * Writes go to both tiers and are broadcast so that other nodes drop their L1 copy.
+ * <p>
+ * A value read from L2 or loaded may be older than an invalidation that arrives while the read is
+ * in flight. Each invalidation bumps a counter striped by key, and a value is only kept in L1 if
+ * its stripe's counter did not move during the read; otherwise it is served once and dropped.
+ */
+public class TieredCache extends AbstractValueAdaptingCache implements MultiGetCache {
+
+    // Loads of the same key wait for each other; loads of different keys mostly do not
+    private static final int LOAD_LOCK_STRIPES = 64;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final BiConsumer<String, String> invalidationPublisher;
+    private final ReentrantLock[] loadLocks = new ReentrantLock[LOAD_LOCK_STRIPES];
+    // Invalidations seen per key stripe, including clears; read before and after filling L1
+    private final AtomicLongArray invalidations = new AtomicLongArray(LOAD_LOCK_STRIPES);
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public TieredCache(String name,
+                       com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                       Cache remote,
+                       BiConsumer<String, String> invalidationPublisher,
+                       MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.l1Hits = tierCounter(meterRegistry, "l1", "hit");
+        this.l1Misses = tierCounter(meterRegistry, "l1", "miss");
+        this.l2Hits = tierCounter(meterRegistry, "l2", "hit");
+        this.l2Misses = tierCounter(meterRegistry, "l2", "miss");
+        for (int i = 0; i < loadLocks.length; i++) {
+            loadLocks[i] = new ReentrantLock();
+        }
+    }
+
+    private Counter tierCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+            .description("Cache lookups per tier")
+            .tag("cache", name)
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        l1Misses.increment();
+
+        long stamp = invalidationStamp(localKey);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        Object storeValue = toStoreValue(wrapper.get());
+        putLocal(localKey, storeValue, stamp);
+        return storeValue;
+    }
+
+    /**
+     * Loads a missing value under a lock striped by key rather than through the remote cache's
+     * own synchronized load, which holds one lock per cache for the whole load. Locks are
+     * {@link ReentrantLock}s, so a virtual thread waiting for a load does not pin its carrier.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue != null) {
+            return (T) fromStoreValue(storeValue);
+        }
+        String localKey = localKey(key);
+        ReentrantLock lock = loadLocks[stripe(localKey)];
+        lock.lock();
+        try {
+            storeValue = lookup(key);
+            if (storeValue != null) {
+                return (T) fromStoreValue(storeValue);
+            }
+            long stamp = invalidationStamp(localKey);
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+            remote.put(key, value);
+            putLocal(localKey, toStoreValue(value), stamp);
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Local hits first; the remaining keys are read from Redis in one round trip and copied into L1.
+     */
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        Map<Object, ValueWrapper> found = new HashMap<>();
+        List<Object> remoteKeys = new ArrayList<>();
+        for (Object key : keys) {
+            Object value = local.getIfPresent(localKey(key));
+            if (value != null) {
+                found.put(key, toValueWrapper(value));
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        l1Hits.increment(found.size());
+        l1Misses.increment(remoteKeys.size());
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        long[] stamps = new long[remoteKeys.size()];
+        for (int i = 0; i < stamps.length; i++) {
+            stamps[i] = invalidationStamp(localKey(remoteKeys.get(i)));
+        }
+        Map<Object, ValueWrapper> remoteFound;
+        if (remote instanceof MultiGetCache multiGet) {
+            remoteFound = multiGet.getAll(remoteKeys);
+        } else {
+            remoteFound = new HashMap<>();
+            for (Object key : remoteKeys) {
+                ValueWrapper wrapper = remote.get(key);
+                if (wrapper != null) {
+                    remoteFound.put(key, wrapper);
+                }
+            }
+        }
+        l2Hits.increment(remoteFound.size());
+        l2Misses.increment(remoteKeys.size() - remoteFound.size());
+        for (int i = 0; i < stamps.length; i++) {
+            Object key = remoteKeys.get(i);
+            ValueWrapper wrapper = remoteFound.get(key);
+            if (wrapper != null) {
+                Object storeValue = toStoreValue(wrapper.get());
+                putLocal(localKey(key), storeValue, stamps[i]);
+                found.put(key, toValueWrapper(storeValue));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stores in Redis what no other node stored meanwhile, and copies that into L1. Loaded values
+     * need no invalidation: other nodes had no entry for them.
+     */
+    @Override
+    public Set<Object> putAllIfAbsent(Map<?, ?> values) {
+        Set<Object> stored;
+        if (remote instanceof MultiGetCache multiGet) {
+            stored = multiGet.putAllIfAbsent(values);
+        } else {
+            stored = new HashSet<>();
+            values.forEach((key, value) -> {
+                if (remote.putIfAbsent(key, value) == null) {
+                    stored.add(key);
+                }
+            });
+        }
+        stored.forEach(key -> local.put(localKey(key), toStoreValue(values.get(key))));
+        return stored;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        remote.put(key, value);
+        invalidated(localKey);
+        local.put(localKey, toStoreValue(value));
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        remote.evict(key);
+        invalidated(localKey);
+        local.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidated(null);
+        local.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    /**
+     * Drops an entry from L1 only; called when another node changed it.
+     * A null key clears the whole local tier.
+     */
+    public void evictLocal(String localKey) {
+        invalidated(localKey);
+        if (localKey == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+
+    // Counted before the entry is dropped, so a fill that misses the count still comes before the drop
+    private void invalidated(String localKey) {
+        if (localKey == null) {
+            for (int i = 0; i < invalidations.length(); i++) {
+                invalidations.incrementAndGet(i);
+            }
+        } else {
+            invalidations.incrementAndGet(stripe(localKey));
+        }
+    }
+
+    private long invalidationStamp(String localKey) {
+        return invalidations.get(stripe(localKey));
+    }
+
+    // Checked after the put: an invalidation counted before then may have dropped the entry
+    // before it was written, so the entry is dropped here instead
+    private void putLocal(String localKey, Object storeValue, long stamp) {
+        local.put(localKey, storeValue);
+        if (invalidationStamp(localKey) != stamp) {
+            local.invalidate(localKey);
+        }
+    }
+
+    private static int stripe(String localKey) {
+        return Math.floorMod(localKey.hashCode(), LOAD_LOCK_STRIPES);
+    }
+
+    // Redis keys are strings as well, so keying L1 the same way keeps both tiers in step
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
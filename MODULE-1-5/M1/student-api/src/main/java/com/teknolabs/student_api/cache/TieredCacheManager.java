@@ -0,0 +1,101 @@
+package com.teknolabs.student_api.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teknolabs.student_api.config.StudentCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of the Redis cache manager with an in-process near cache.
+ * Local invalidations are published on a Redis channel; this manager also listens on
+ * that channel and evicts the matching L1 entries published by other nodes.
+ */
+@Slf4j
+public class TieredCacheManager implements CacheManager, MessageListener {
+
+    private static final String SEPARATOR = "|";
+    private static final String CLEAR_ALL = "*";
+
+    private final CacheManager remoteCacheManager;
+    private final StudentCacheProperties.Near properties;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CacheManager remoteCacheManager,
+                              StudentCacheProperties.Near properties,
+                              StringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TieredCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        Counter evictions = Counter.builder("cache.tier.evictions")
+            .description("Entries evicted from the local tier because of its size or age bounds")
+            .tag("cache", name)
+            .tag("tier", "l1")
+            .register(meterRegistry);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTimeToLive())
+            .removalListener((key, value, cause) -> {
+                if (cause.wasEvicted()) {
+                    evictions.increment();
+                }
+            })
+            .build();
+        return new TieredCache(name, local, remote, this::publishInvalidation, meterRegistry);
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String payload = nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? CLEAR_ALL : key);
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), payload);
+        } catch (RuntimeException ex) {
+            // Other nodes fall back on the L1 time to live; the write itself already succeeded
+            log.warn("Could not publish near cache invalidation for {} in cache {}", key, cacheName, ex);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = payload.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TieredCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(CLEAR_ALL.equals(parts[2]) ? null : parts[2]);
+            meterRegistry.counter("cache.tier.invalidations", "cache", parts[1]).increment();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.teknolabs.student_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teknolabs.student_api.admission.AdaptiveConcurrencyLimit;
+import com.teknolabs.student_api.admission.AdmissionFilter;
+import com.teknolabs.student_api.admission.LocalRateLimiter;
+import com.teknolabs.student_api.admission.RateLimiter;
+import com.teknolabs.student_api.admission.RedisRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Admission control in front of the student endpoints: token bucket rate limits per client and per
+ * endpoint, and an adaptive limit on the requests in progress that sheds low priority calls first.
+ * Off by default.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(name = "student.admission.enabled", havingValue = "true")
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+    // Bounds the memory taken by per-client buckets when many clients (or spoofed addresses) show up
+    private static final int MAXIMUM_LOCAL_BUCKETS = 100_000;
+
+    @Bean
+    public RateLimiter rateLimiter(AdmissionProperties properties, ObjectProvider<StringRedisTemplate> redisTemplate) {
+        // An unused bucket is full again after burst / rate seconds; keep it at least that long
+        Duration idleTimeout = Duration.ofMinutes(1);
+        for (AdmissionProperties.Rate rate : properties.getEndpoints().values()) {
+            idleTimeout = max(idleTimeout, refillTime(rate));
+        }
+        idleTimeout = max(idleTimeout, refillTime(properties.getPerClient()));
+        RateLimiter local = new LocalRateLimiter(MAXIMUM_LOCAL_BUCKETS, idleTimeout);
+        AdmissionProperties.Shared shared = properties.getShared();
+        if (!shared.isEnabled()) {
+            return local;
+        }
+        return new RedisRateLimiter(redisTemplate.getObject(), shared.getKeyPrefix(), local, shared.getRetryInterval());
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(
+            AdmissionProperties properties, RateLimiter rateLimiter, MeterRegistry meterRegistry,
+            ObjectMapper objectMapper) {
+        AdmissionProperties.Concurrency concurrency = properties.getConcurrency();
+        AdaptiveConcurrencyLimit concurrencyLimit = concurrency.isEnabled()
+            ? new AdaptiveConcurrencyLimit(concurrency.getInitialLimit(), concurrency.getMinLimit(),
+                concurrency.getMaxLimit(), concurrency.getTolerance(), concurrency.getSmoothing(),
+                concurrency.getWindow().toNanos(), System::nanoTime)
+            : null;
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(
+            new AdmissionFilter(properties, rateLimiter, concurrencyLimit, meterRegistry, objectMapper));
+        // Right after the request observation, so refusals still show in http.server.requests,
+        // and before any other filter spends work on a request that is going to be refused
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static Duration refillTime(AdmissionProperties.Rate rate) {
+        return Duration.ofMillis((long) Math.ceil(1000 * rate.getBurst() / rate.getRate()));
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,92 @@
+package com.teknolabs.student_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "student.admission")
+public class AdmissionProperties {
+
+    // Rate limits and load shedding in front of the student endpoints
+    private boolean enabled = false;
+
+    // Header naming the client (e.g. X-Forwarded-For set by the proxy, or an API key header); the last
+    // value, the one added by the proxy, is used. The remote address when not set or absent from the request
+    private String clientHeader;
+
+    // Requests per second each client may send, across all student endpoints
+    private Rate perClient = new Rate(50, 100);
+
+    // Requests per second all clients together may send to an endpoint (read, lookup, list, search, export,
+    // write, other); endpoints not listed are only limited per client
+    private Map<String, Rate> endpoints = new LinkedHashMap<>();
+
+    private Shared shared = new Shared();
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Rate {
+
+        // Tokens added per second
+        private double rate;
+
+        // Most tokens a bucket holds: how many requests may arrive at once after a quiet period
+        private int burst;
+
+        public Rate() {
+        }
+
+        public Rate(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+    }
+
+    @Data
+    public static class Shared {
+
+        // Keep the buckets in Redis so the limits hold across the cluster rather than per node
+        private boolean enabled = false;
+
+        private String keyPrefix = "student-api:rate:";
+
+        // After Redis fails, buckets are local for this long before Redis is tried again
+        private Duration retryInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Concurrency {
+
+        // Cap the requests in progress, adjusting the cap to the latency observed
+        private boolean enabled = true;
+
+        private int initialLimit = 50;
+
+        private int minLimit = 10;
+
+        private int maxLimit = 500;
+
+        // How much slower than usual requests may get before the limit is lowered
+        private double tolerance = 1.5;
+
+        // Latency is averaged, and the limit adjusted, once per window
+        private Duration window = Duration.ofMillis(500);
+
+        // Weight of each adjustment, 0 to 1: lower makes the limit steadier but slower to react
+        private double smoothing = 0.2;
+
+        // Share of the limit that normal (multi-id lookups, other pages) and low priority requests
+        // (search, list, export) may take; single-id reads and writes may take all of it
+        private double normalPriorityShare = 0.9;
+
+        private double lowPriorityShare = 0.6;
+
+        // Retry-After sent with 503 responses
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.teknolabs.student_api.config;
+
+import com.teknolabs.student_api.datasource.ReadYourWrites;
+import com.teknolabs.student_api.datasource.ReadYourWritesFilter;
+import com.teknolabs.student_api.datasource.Replica;
+import com.teknolabs.student_api.datasource.ReplicaHealthIndicator;
+import com.teknolabs.student_api.datasource.ReplicaRoutingDataSource;
+import com.teknolabs.student_api.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting: read-only transactions read from a pool of replicas, everything else uses
+ * the primary configured under spring.datasource. Off by default, in which case Spring Boot sets up
+ * the single data source as usual.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaSet replicaSet(ReplicaProperties replicaProperties, DataSourceProperties primaryProperties,
+                                 MeterRegistry meterRegistry) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getUrls().size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.add(new Replica(name, replicaPool(name, replicaProperties.getUrls().get(i),
+                replicaProperties, primaryProperties, meterRegistry)));
+        }
+        ReplicaSet replicaSet = new ReplicaSet(replicas, replicaProperties.getHealthCheckInterval(), meterRegistry);
+        replicaSet.start();
+        return replicaSet;
+    }
+
+    private static HikariDataSource replicaPool(String name, String url, ReplicaProperties replicaProperties,
+                                                DataSourceProperties primaryProperties, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(replicaProperties.getUsername() != null
+            ? replicaProperties.getUsername() : primaryProperties.determineUsername());
+        dataSource.setPassword(replicaProperties.getPassword() != null
+            ? replicaProperties.getPassword() : primaryProperties.determinePassword());
+        dataSource.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+        dataSource.setReadOnly(true);
+        // Start even when the replica is down; the health checks take it out of the rotation
+        dataSource.setInitializationFailTimeout(-1);
+        // Boot only meters the pools that are beans
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties replicaProperties) {
+        return new ReadYourWrites(replicaProperties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaSet replicaSet,
+                                 ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        // Connections are fetched at the first statement, once the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primaryDataSource, replicaSet, readYourWrites, meterRegistry));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+        // A session normally keeps its connection until it closes, so with open-in-view every transaction
+        // of a request would reuse the first one's database; release it after each transaction instead
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWrites readYourWrites) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWrites));
+    }
+
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaSet replicaSet) {
+        return new ReplicaHealthIndicator(replicaSet);
+    }
+}
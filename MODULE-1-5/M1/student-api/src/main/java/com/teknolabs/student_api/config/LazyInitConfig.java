@@ -0,0 +1,20 @@
+package com.teknolabs.student_api.config;
+
+import com.teknolabs.student_api.controller.StudentController;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans created at startup even with {@code spring.main.lazy-initialization} (fast-start profile).
+ * The REST controller pulls in the service, repository, caches and change-event log, so the first
+ * API request finds them ready; UI, documentation and actuator beans wait for their first use.
+ */
+@Configuration
+public class LazyInitConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerApiBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(StudentController.class);
+    }
+}
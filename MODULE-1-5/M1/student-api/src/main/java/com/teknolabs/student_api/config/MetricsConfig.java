@@ -0,0 +1,45 @@
+package com.teknolabs.student_api.config;
+
+import com.teknolabs.student_api.metrics.QueryCounter;
+import com.teknolabs.student_api.metrics.QueryCountingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request SQL statement counts and N+1 detection. Endpoint, repository, connection pool,
+ * cache and Hibernate meters are set up by Spring Boot and the cache classes themselves.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.metrics.query-tracking.enabled", havingValue = "true")
+public class MetricsConfig {
+
+    @Bean
+    public QueryCounter queryCounter() {
+        return new QueryCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer(QueryCounter queryCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public FilterRegistrationBean<QueryCountingFilter> queryCountingFilter(
+            QueryCounter queryCounter, MeterRegistry meterRegistry,
+            @Value("${student.metrics.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        FilterRegistrationBean<QueryCountingFilter> registration =
+            new FilterRegistrationBean<>(new QueryCountingFilter(queryCounter, meterRegistry, nPlusOneThreshold));
+        // Innermost, so that only the work of the request itself is counted
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+}
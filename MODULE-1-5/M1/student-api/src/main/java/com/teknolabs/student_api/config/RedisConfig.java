@@ -1,48 +1,132 @@
 package com.teknolabs.student_api.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.teknolabs.student_api.cache.CoalescingCacheManager;
+import com.teknolabs.student_api.cache.MeteredRedisSerializer;
+import com.teknolabs.student_api.cache.MultiGetRedisCacheManager;
+import com.teknolabs.student_api.cache.NearCacheListenerContainer;
+import com.teknolabs.student_api.cache.RedisLoadLock;
+import com.teknolabs.student_api.cache.StudentBinaryRedisSerializer;
+import com.teknolabs.student_api.cache.StudentQueryCache;
+import com.teknolabs.student_api.cache.TieredCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
-
-import java.time.Duration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 @Configuration
-@EnableCaching
+// Cache advice runs outside @Transactional: a hit returns without borrowing a pooled connection,
+// and puts/evictions of writes happen after the commit
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(StudentCacheProperties.class)
 public class RedisConfig {
 
     @Bean
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
-    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               StudentCacheProperties cacheProperties,
+                                               MeterRegistry meterRegistry) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(60))
+            .entryTtl(cacheProperties.getTimeToLive())
             .serializeValuesWith(RedisSerializationContext.SerializationPair
-                .fromSerializer(serializer));
+                .fromSerializer(new MeteredRedisSerializer(
+                    cacheValueSerializer(cacheProperties.getSerialization()), meterRegistry)));
+
+        // Its caches also read and fill many keys per round trip (multi-id lookups)
+        return new MultiGetRedisCacheManager(connectionFactory, config);
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
-            .cacheDefaults(config)
-            .build();
+    /**
+     * Serializer of the values stored in Redis. The JSON one embeds type hints and handles cached
+     * nulls, so values come back as Student/List/CachedPage instead of plain maps; the binary one
+     * falls back to it for other types and for entries written as JSON.
+     */
+    public static RedisSerializer<Object> cacheValueSerializer(StudentCacheProperties.Serialization serialization) {
+        RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer()
+            .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+        return serialization == StudentCacheProperties.Serialization.BINARY
+            ? new StudentBinaryRedisSerializer(json)
+            : json;
     }
 
     @Bean
     @Primary
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "simple", matchIfMissing = true)
-    public CacheManager simpleCacheManager() {
-        return new ConcurrentMapCacheManager("students");
+    public CacheManager simpleCacheManager(StudentCacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        return new CoalescingCacheManager(
+            new ConcurrentMapCacheManager(StudentQueryCache.CACHE_NAMES.toArray(String[]::new)),
+            cacheProperties, null, meterRegistry);
+    }
+
+    /**
+     * The cache manager the application uses with Redis: single-flight loads and early refresh in
+     * front of the near cache, or directly in front of Redis when the near cache is disabled.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public CacheManager coalescingCacheManager(RedisCacheManager redisCacheManager,
+                                               ObjectProvider<TieredCacheManager> tieredCacheManager,
+                                               StringRedisTemplate redisTemplate,
+                                               MeterRegistry meterRegistry,
+                                               StudentCacheProperties cacheProperties) {
+        StudentCacheProperties.Load load = cacheProperties.getLoad();
+        RedisLoadLock loadLock = load.isDistributedLock()
+            ? new RedisLoadLock(redisTemplate, load.getLockLease())
+            : null;
+        CacheManager target = tieredCacheManager.getIfAvailable();
+        return new CoalescingCacheManager(target != null ? target : redisCacheManager,
+            cacheProperties, loadLock, meterRegistry);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    static class NearCacheConfiguration {
+
+        @Bean
+        @ConditionalOnProperty(name = "student.cache.near.enabled", havingValue = "true", matchIfMissing = true)
+        public TieredCacheManager tieredCacheManager(RedisCacheManager redisCacheManager,
+                                                     StringRedisTemplate redisTemplate,
+                                                     MeterRegistry meterRegistry,
+                                                     StudentCacheProperties cacheProperties) {
+            return new TieredCacheManager(redisCacheManager, cacheProperties.getNear(), redisTemplate, meterRegistry);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "student.cache.near.enabled", havingValue = "true", matchIfMissing = true)
+        public RedisMessageListenerContainer nearCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                          TieredCacheManager tieredCacheManager,
+                                                                          StudentCacheProperties cacheProperties,
+                                                                          @Value("${spring.threads.virtual.enabled:false}")
+                                                                          boolean virtualThreads) {
+            RedisMessageListenerContainer container = new NearCacheListenerContainer(
+                cacheProperties.getNear().getResubscribeInterval());
+            container.setConnectionFactory(connectionFactory);
+            // Boot only switches the containers it creates itself to virtual threads
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("near-cache-");
+            taskExecutor.setVirtualThreads(virtualThreads);
+            container.setTaskExecutor(taskExecutor);
+            container.addMessageListener(tieredCacheManager,
+                new ChannelTopic(cacheProperties.getNear().getInvalidationChannel()));
+            return container;
+        }
     }
 }
\ No newline at end of file
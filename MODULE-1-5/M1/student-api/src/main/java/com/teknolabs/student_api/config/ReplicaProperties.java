@@ -0,0 +1,36 @@
+package com.teknolabs.student_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "student.datasource.replicas")
+public class ReplicaProperties {
+
+    // Send read-only transactions to the replicas below; everything else uses spring.datasource
+    private boolean enabled = false;
+
+    // JDBC URLs of the read replicas, each with its own connection pool
+    private List<String> urls = new ArrayList<>();
+
+    // Credentials of the replicas; those of the primary when not set
+    private String username;
+
+    private String password;
+
+    // Connections per replica pool
+    private int maximumPoolSize = 10;
+
+    // How long a read waits for a replica connection before trying the next replica or the primary
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    // How often every replica is checked; one found down gets no reads until a check finds it up again
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    // After a client writes, its reads go to the primary for this long so they see the write despite replication lag
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
@@ -0,0 +1,116 @@
+package com.teknolabs.student_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "student.cache")
+public class StudentCacheProperties {
+
+    // Time to live of entries stored in Redis (L2)
+    private Duration timeToLive = Duration.ofMinutes(60);
+
+    // Encoding of the values stored in Redis
+    private Serialization serialization = Serialization.JSON;
+
+    private Near near = new Near();
+
+    private Load load = new Load();
+
+    private WarmUp warmUp = new WarmUp();
+
+    public enum Serialization {
+        // Jackson JSON with embedded class names; readable with redis-cli
+        JSON,
+        // Compact versioned binary layout for students, JSON for anything else
+        BINARY
+    }
+
+    @Data
+    public static class Near {
+        // Put an in-process cache (L1) in front of Redis
+        private boolean enabled = true;
+
+        // Maximum number of entries kept per cache in L1
+        private long maximumSize = 10_000;
+
+        // Upper bound on how long an L1 entry may live, even without invalidation
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        // Redis pub/sub channel used to evict L1 entries on every node
+        private String invalidationChannel = "student-api:cache-invalidation";
+
+        // Delay between attempts to subscribe to the invalidation channel when Redis is down
+        private Duration resubscribeInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Load {
+        // Weight of the probabilistic early refresh before expiry; higher refreshes earlier, 0 disables it
+        private double earlyRefreshBeta = 1.0;
+
+        // Also let only one node of the cluster load a missing key, through a lock in Redis
+        private boolean distributedLock = false;
+
+        // How long a node may hold that lock; the others load themselves once it has passed
+        private Duration lockLease = Duration.ofSeconds(5);
+
+        // How often a node waiting on another node's load checks the cache
+        private Duration lockPollInterval = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class WarmUp {
+        // Load students into the entity cache at startup, before readiness is reported
+        private boolean enabled = true;
+
+        // How many students to load, lowest ids first, when no hot keys were saved yet
+        private int students = 1000;
+
+        // Batches (of students, or single searches) loaded at the same time
+        private int concurrency = 4;
+
+        // Students read per query
+        private int batchSize = 100;
+
+        // Readiness is reported after this long even if entries are left to load
+        private Duration timeBudget = Duration.ofSeconds(30);
+
+        private HotKeys hotKeys = new HotKeys();
+    }
+
+    public enum HotKeyStoreType {
+        // Shared by every node, survives restarts of any of them
+        REDIS,
+        // Local file, for a single node with a persistent volume
+        FILE,
+        // Track hot keys without keeping them across restarts
+        NONE
+    }
+
+    @Data
+    public static class HotKeys {
+        // Count reads by student id and search terms to warm the most requested entries
+        private boolean enabled = true;
+
+        // Number of hot keys saved and warmed
+        private int size = 1000;
+
+        // Counters per row of the frequency sketch (four rows of 4-byte counters)
+        private int sketchWidth = 16_384;
+
+        // How often the hot keys are saved; counts are halved after each save so old traffic fades
+        private Duration saveInterval = Duration.ofMinutes(1);
+
+        private HotKeyStoreType store = HotKeyStoreType.REDIS;
+
+        // Redis key of the hot keys, with the redis store
+        private String redisKey = "student-api:hot-keys";
+
+        // File of the hot keys, with the file store
+        private Path file = Path.of(System.getProperty("java.io.tmpdir"), "student-api-hot-keys.txt");
+    }
+}
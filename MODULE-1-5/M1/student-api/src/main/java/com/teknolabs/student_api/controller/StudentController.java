@@ -1,7 +1,25 @@
 package com.teknolabs.student_api.controller;
 
+import com.teknolabs.student_api.cache.HotKeyTracker;
+import com.teknolabs.student_api.event.StudentEventLog;
+import com.teknolabs.student_api.event.StudentEventReplayer;
+import com.teknolabs.student_api.exception.BadRequestException;
 import com.teknolabs.student_api.exception.ResourceNotFoundException;
+import com.teknolabs.student_api.model.CursorPage;
+import com.teknolabs.student_api.model.ExportFormat;
+import com.teknolabs.student_api.model.ImportResult;
+import com.teknolabs.student_api.model.ReplayResult;
+import com.teknolabs.student_api.model.StatusTransitionRequest;
+import com.teknolabs.student_api.model.StatusTransitionResult;
 import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentCursor;
+import com.teknolabs.student_api.model.StudentEvent;
+import com.teknolabs.student_api.model.StudentFieldSet;
+import com.teknolabs.student_api.model.StudentStats;
+import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.model.StudentSummary;
+import com.teknolabs.student_api.service.StudentBatchLoader;
+import com.teknolabs.student_api.service.StudentImportService;
 import com.teknolabs.student_api.service.StudentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,25 +28,74 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 @Controller
 @Tag(name = "Student", description = "Student management APIs")
 public class StudentController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int MAX_LIST_PAGE_SIZE = 500;
+    private static final List<String> LIST_SORT_KEYS = List.of("id", "name", "email", "status");
+
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentEventLog studentEventLog;
+
+    @Autowired
+    private StudentEventReplayer studentEventReplayer;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private StudentBatchLoader studentBatchLoader;
+
     // Web UI endpoints
     @GetMapping("/students")
-    public String listStudents(Model model) {
-        model.addAttribute("students", studentService.getAllStudents());
+    public String listStudents(
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "50") int size,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "ASC") Sort.Direction dir,
+        Model model) {
+        if (!LIST_SORT_KEYS.contains(sort)) {
+            throw new BadRequestException("Students can be sorted by " + String.join(", ", LIST_SORT_KEYS));
+        }
+        // Only one page is read and rendered, so memory use does not depend on the table size
+        Sort order = sort.equals("id") ? Sort.by(dir, "id") : Sort.by(dir, sort).and(Sort.by("id"));
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_LIST_PAGE_SIZE), order);
+        model.addAttribute("page", studentService.getStudentSummaryPage(pageRequest));
+        model.addAttribute("sort", sort);
+        model.addAttribute("dir", dir);
         return "students/list";
     }
 
@@ -47,17 +114,159 @@ public class StudentController {
     }
 
     // REST API endpoints
-    @Operation(summary = "Get all students", description = "Returns a list of all students in the system")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved students")
+    @Operation(summary = "Get all students", description = "Returns a list of all students in the system, "
+        + "optionally limited to some fields")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students"),
+        @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    })
     @GetMapping("/api/students")
     @ResponseBody
-    public List<Student> getAllStudents() {
-        return studentService.getAllStudents();
+    public ResponseEntity<List<?>> getAllStudents(
+        @Parameter(description = "Comma-separated fields to return (sparse fieldset); only these columns are read",
+            example = "id,name,email")
+        @RequestParam(required = false) String fields,
+        WebRequest request) {
+        StudentFieldSet fieldSet = fields == null ? null : StudentFieldSet.parse(fields);
+        // The list version is checked before the list is read, so an unchanged list costs one cache lookup
+        String etag = "\"" + studentService.getStudentListVersion()
+            + (fieldSet == null ? "" : ";fields=" + String.join(",", fieldSet.getNames())) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<?> students = fieldSet == null
+            ? studentService.getAllStudents()
+            : studentService.getAllStudentFields(fieldSet);
+        return ResponseEntity.ok().eTag(etag).body(students);
+    }
+
+    @Operation(summary = "Get several students by ID",
+        description = "Returns the students with the given IDs, in the order asked; IDs without a student are "
+            + "left out. Cached students are read in one round trip and the others with a single query")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students"),
+        @ApiResponse(responseCode = "400", description = "No IDs or too many IDs")
+    })
+    @GetMapping(value = "/api/students", params = "ids")
+    @ResponseBody
+    public List<Student> getStudentsByIds(
+        @Parameter(description = "Comma-separated IDs of the students to retrieve", required = true, example = "1,2,3")
+        @RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Between 1 and " + MAX_CURSOR_PAGE_SIZE + " IDs can be retrieved at once");
+        }
+        ids.forEach(hotKeyTracker::studentRead);
+        return studentService.getStudentsByIds(ids);
+    }
+
+    @Operation(summary = "Get student summaries page by page",
+        description = "Id, name, email and status only, read without loading full students")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved student summaries"),
+        @ApiResponse(responseCode = "400", description = "Invalid page")
+    })
+    @GetMapping("/api/students/summaries")
+    @ResponseBody
+    public Page<StudentSummary> getStudentSummaries(
+        @Parameter(description = "Zero-based page number")
+        @RequestParam(defaultValue = "0") int page,
+        @Parameter(description = "Number of students per page")
+        @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Page must be positive and size between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return studentService.getStudentSummaries(PageRequest.of(page, size, Sort.by("id")));
+    }
+
+    @Operation(summary = "Get students page by page using a cursor",
+        description = "Keyset pagination: pass the nextCursor of a response to get the following page. "
+            + "Latency does not grow with the page depth")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @GetMapping("/api/students/cursor")
+    @ResponseBody
+    public CursorPage<Student> getStudentsByCursor(
+        @Parameter(description = "Cursor returned by the previous page; omit for the first page")
+        @RequestParam(required = false) String cursor,
+        @Parameter(description = "Sort order of a new listing (ignored when a cursor is given)")
+        @RequestParam(defaultValue = "ID") StudentCursor.SortKey sort,
+        @Parameter(description = "Number of students per page")
+        @RequestParam(defaultValue = "20") int size,
+        @Parameter(description = "Only return students with this status")
+        @RequestParam(required = false) StudentStatus status,
+        @Parameter(description = "Also return the total number of students (from the maintained counts, "
+            + "a count query until those are ready)")
+        @RequestParam(defaultValue = "false") boolean includeTotal) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        StudentCursor position = cursor == null ? StudentCursor.first(sort) : StudentCursor.decode(cursor);
+        return studentService.getStudentsAfter(position, status, size, includeTotal);
+    }
+
+    @Operation(summary = "Get student counts",
+        description = "Number of students per status and per birth year. Answered from counts the write paths "
+            + "keep up to date and that are regularly reconciled with the database")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved counts")
+    @GetMapping("/api/students/stats")
+    @ResponseBody
+    public StudentStats getStudentStats() {
+        return studentService.getStats();
+    }
+
+    @Operation(summary = "Search students",
+        description = "Searches names and emails by word, word prefix, part of a word and close spelling, "
+            + "best matches first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully searched students"),
+        @ApiResponse(responseCode = "400", description = "Missing keyword or invalid page")
+    })
+    @GetMapping("/api/students/search")
+    @ResponseBody
+    public Page<Student> searchStudents(
+        @Parameter(description = "Words to look for", required = true, example = "jon smi")
+        @RequestParam String q,
+        @Parameter(description = "Zero-based page number")
+        @RequestParam(defaultValue = "0") int page,
+        @Parameter(description = "Number of students per page")
+        @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank()) {
+            throw new BadRequestException("Search keyword must not be blank");
+        }
+        if (page < 0 || size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Page must be positive and size between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        hotKeyTracker.searched(q.trim(), page, size);
+        return studentService.searchStudents(q.trim(), PageRequest.of(page, size));
     }
 
-    @Operation(summary = "Get a student by ID", description = "Returns a student based on the ID")
+    @Operation(summary = "Export students",
+        description = "Streams all matching students as NDJSON (one student per line) or as a JSON array. "
+            + "The response is written while rows are read, so it works for any table size")
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    @GetMapping("/api/students/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+        @Parameter(description = "Output format")
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+        @Parameter(description = "Only export students with this status")
+        @RequestParam(required = false) StudentStatus status,
+        @Parameter(description = "Only export students born on or after this date", example = "2000-01-01")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornAfter,
+        @Parameter(description = "Only export students born on or before this date", example = "2005-12-31")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornBefore) {
+        StreamingResponseBody body = out -> studentService.exportStudents(status, bornAfter, bornBefore, format, out);
+        return ResponseEntity.ok()
+            .contentType(format == ExportFormat.JSON ? MediaType.APPLICATION_JSON : NDJSON)
+            .body(body);
+    }
+
+    @Operation(summary = "Get a student by ID", description = "Returns a student based on the ID, "
+        + "or 304 when the If-None-Match or If-Modified-Since validators still match")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved student"),
+        @ApiResponse(responseCode = "304", description = "Student unchanged since the given validators"),
         @ApiResponse(responseCode = "404", description = "Student not found")
     })
     @GetMapping("/api/students/{id}")
@@ -65,8 +274,10 @@ public class StudentController {
     public ResponseEntity<Student> getStudentById(
         @Parameter(description = "ID of the student to retrieve", required = true)
         @PathVariable Long id) {
-        return studentService.getStudentById(id)
-                .map(ResponseEntity::ok)
+        hotKeyTracker.studentRead(id);
+        // Validators come from the cached student; Spring answers 304 without writing the body
+        return loadStudent(id)
+                .map(student -> withValidators(ResponseEntity.ok(), student).body(student))
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
     }
 
@@ -80,26 +291,79 @@ public class StudentController {
     public ResponseEntity<Student> createStudent(
         @Parameter(description = "Student to create", required = true)
         @Valid @RequestBody Student student) {
+        // Id and version are assigned by the database: with one sent by the client the save would be
+        // a merge into (or a rejected persist of) an existing student instead of a create
+        student.setId(null);
+        student.setVersion(null);
         Student savedStudent = studentService.saveStudent(student);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedStudent);
+        return withValidators(ResponseEntity.status(HttpStatus.CREATED), savedStudent).body(savedStudent);
+    }
+
+    @Operation(summary = "Import students from CSV",
+        description = "Creates students from a CSV upload with a header row (name, email, dateOfBirth, phoneNumber, "
+            + "status). Invalid rows and email conflicts are reported without aborting the import")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import processed, see errors for rejected rows"),
+        @ApiResponse(responseCode = "400", description = "Upload is not a readable CSV file")
+    })
+    @PostMapping(value = "/api/students/import", consumes = "text/csv")
+    @ResponseBody
+    public ImportResult importStudentsCsv(InputStream body) throws IOException {
+        return studentImportService.importCsv(body);
     }
 
-    @Operation(summary = "Update a student", description = "Updates an existing student in the system")
+    @Operation(summary = "Import students from JSON",
+        description = "Creates students from a JSON array. Invalid records and email conflicts are reported "
+            + "without aborting the import")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import processed, see errors for rejected rows"),
+        @ApiResponse(responseCode = "400", description = "Upload is not a JSON array")
+    })
+    @PostMapping(value = "/api/students/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ImportResult importStudentsJson(InputStream body) throws IOException {
+        return studentImportService.importJson(body);
+    }
+
+    @Operation(summary = "Update a student", description = "Updates an existing student in the system. "
+        + "With If-Match, the update only applies if the student's ETag still matches")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Student updated successfully"),
         @ApiResponse(responseCode = "404", description = "Student not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid input")
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "409", description = "Student changed by a concurrent request"),
+        @ApiResponse(responseCode = "412", description = "Student changed since the ETag given in If-Match")
     })
     @PutMapping("/api/students/{id}")
     @ResponseBody
     public ResponseEntity<Student> updateStudent(
         @Parameter(description = "ID of the student to update", required = true)
         @PathVariable Long id,
+        @Parameter(description = "ETag of the student as last read, e.g. \"3\"")
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Parameter(description = "Updated student information", required = true)
         @Valid @RequestBody Student student) {
-        student.setId(id);
-        Student updatedStudent = studentService.saveStudent(student);
-        return ResponseEntity.ok(updatedStudent);
+        Student updatedStudent = studentService.updateStudent(id, student, ifMatchVersions(ifMatch));
+        return withValidators(ResponseEntity.ok(), updatedStudent).body(updatedStudent);
+    }
+
+    @Operation(summary = "Change the status of many students",
+        description = "Moves students selected by id, or by current status and birth-date range, to a new status. "
+            + "Runs one UPDATE per chunk without loading the students and returns the number of rows changed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status transition applied"),
+        @ApiResponse(responseCode = "400", description = "Invalid selection")
+    })
+    @PatchMapping("/api/students/status")
+    @ResponseBody
+    public StatusTransitionResult updateStudentsStatus(
+        @Parameter(description = "Students to update and their new status", required = true)
+        @Valid @RequestBody StatusTransitionRequest request) {
+        if (request.getCurrentStatus() != null) {
+            return studentService.updateStatusWhere(request.getCurrentStatus(), request.getBornAfter(),
+                request.getBornBefore(), request.getStatus());
+        }
+        return studentService.updateStatusForIds(request.getIds(), request.getStatus());
     }
 
     @Operation(summary = "Delete a student", description = "Deletes a student from the system")
@@ -116,6 +380,27 @@ public class StudentController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Get the change history of a student",
+        description = "Returns the student's creation, updates, status changes and deletion from the change-event log, oldest first")
+    @ApiResponse(responseCode = "200", description = "Events of the student, empty if none were recorded")
+    @GetMapping("/api/students/{id}/events")
+    @ResponseBody
+    public List<StudentEvent> getStudentEvents(
+        @Parameter(description = "ID of the student", required = true)
+        @PathVariable Long id) {
+        return studentEventLog.findByStudent(id);
+    }
+
+    @Operation(summary = "Rebuild caches from the change-event log",
+        description = "Replays the log to put every student it knows back into the cache and search index, "
+            + "and drops deleted ones from both")
+    @ApiResponse(responseCode = "200", description = "Log replayed")
+    @PostMapping("/api/students/events/replay")
+    @ResponseBody
+    public ReplayResult replayStudentEvents() {
+        return studentEventReplayer.replay();
+    }
+
     // Form submission endpoints
     @PostMapping("/students")
     public String createStudentForm(@Valid @ModelAttribute Student student) {
@@ -125,8 +410,55 @@ public class StudentController {
 
     @PostMapping("/students/{id}")
     public String updateStudentForm(@PathVariable Long id, @Valid @ModelAttribute Student student) {
-        student.setId(id);
-        studentService.saveStudent(student);
+        studentService.updateStudent(id, student, null);
         return "redirect:/students";
     }
+
+    // Through the batch loader, which merges concurrent lookups when batching is enabled
+    private Optional<Student> loadStudent(Long id) {
+        try {
+            return studentBatchLoader.load(id).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
+
+    // Strong ETag from the version, Last-Modified from the audit columns
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response, Student student) {
+        if (student.getVersion() != null) {
+            response.eTag("\"" + student.getVersion() + "\"");
+        }
+        LocalDateTime modified = student.getLastModifiedDate() != null
+            ? student.getLastModifiedDate()
+            : student.getCreatedDate();
+        if (modified != null) {
+            response.lastModified(modified.atZone(ZoneId.systemDefault()));
+        }
+        return response;
+    }
+
+    /**
+     * Versions listed in an If-Match header, or null when any version will do (no header or "*").
+     * If-Match compares strongly, so weak tags match nothing.
+     */
+    private static List<Long> ifMatchVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(value.substring(1, value.length() - 1)));
+                } catch (NumberFormatException ex) {
+                    // Not an ETag this API issued, so it cannot match
+                }
+            }
+        }
+        return versions;
+    }
 }
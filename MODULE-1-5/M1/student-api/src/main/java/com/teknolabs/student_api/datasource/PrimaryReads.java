@@ -0,0 +1,45 @@
+package com.teknolabs.student_api.datasource;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Marks work whose reads must come from the primary even in a read-only transaction, such as
+ * loads of shared caches: a value read from a lagging replica would be served to every client
+ * until it expires.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Callable<T> work) throws Exception {
+        Boolean previous = REQUIRED.get();
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                REQUIRED.remove();
+            }
+        }
+    }
+
+    public static <T> T get(Supplier<T> work) {
+        Boolean previous = REQUIRED.get();
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                REQUIRED.remove();
+            }
+        }
+    }
+
+    static boolean isRequired() {
+        return REQUIRED.get() != null;
+    }
+}
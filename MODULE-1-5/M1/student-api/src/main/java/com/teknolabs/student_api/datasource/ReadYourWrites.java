@@ -0,0 +1,82 @@
+package com.teknolabs.student_api.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Sends a client's reads to the primary for a while after it wrote, so that it sees its own
+ * writes even when the replicas lag. Within a thread the window starts at the write's commit;
+ * across HTTP requests it travels in a cookie holding the time until which the primary is used.
+ */
+public class ReadYourWrites {
+
+    public static final String COOKIE = "student-api-primary-until";
+
+    private static final String COOKIE_SET = ReadYourWrites.class.getName() + ".COOKIE_SET";
+
+    private final Duration window;
+    private final ThreadLocal<Long> primaryUntil = new ThreadLocal<>();
+
+    public ReadYourWrites(Duration window) {
+        this.window = window;
+    }
+
+    public boolean isActive() {
+        Long until = primaryUntil.get();
+        return until != null && System.currentTimeMillis() < until;
+    }
+
+    /**
+     * Called once a write has committed.
+     */
+    public void recordWrite() {
+        if (window.isZero() || window.isNegative()) {
+            return;
+        }
+        long until = System.currentTimeMillis() + window.toMillis();
+        primaryUntil.set(until);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+            && attributes.getResponse() != null
+            && attributes.getAttribute(COOKIE_SET, RequestAttributes.SCOPE_REQUEST) == null) {
+            HttpServletResponse response = attributes.getResponse();
+            if (!response.isCommitted()) {
+                // Once per request: requests writing in many transactions (imports, bulk updates) add one cookie
+                Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+                response.addCookie(cookie);
+                attributes.setAttribute(COOKIE_SET, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+    }
+
+    void begin(HttpServletRequest request) {
+        primaryUntil.remove();
+        if (request.getCookies() == null) {
+            return;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    // Capped, so that a client cannot pin itself to the primary
+                    long until = Math.min(Long.parseLong(cookie.getValue()),
+                        System.currentTimeMillis() + window.toMillis());
+                    primaryUntil.set(until);
+                } catch (NumberFormatException ex) {
+                    // Not a cookie this application set
+                }
+            }
+        }
+    }
+
+    void end() {
+        primaryUntil.remove();
+    }
+}
@@ -0,0 +1,32 @@
+package com.teknolabs.student_api.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Restores a client's read-your-writes window from its cookie for the duration of a request.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        readYourWrites.begin(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWrites.end();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.teknolabs.student_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * One read replica and whether it was reachable when last used or checked.
+ */
+@Slf4j
+public class Replica implements AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+    private volatile String lastError;
+
+    public Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    Connection getConnection() throws SQLException {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException ex) {
+            if (!isPoolExhausted(ex)) {
+                markDown(ex);
+            }
+            throw ex;
+        }
+    }
+
+    void check() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Connection did not validate");
+            }
+            if (!healthy) {
+                log.info("Replica {} is reachable again, sending reads to it", name);
+            }
+            healthy = true;
+            lastError = null;
+        } catch (SQLException ex) {
+            if (!isPoolExhausted(ex)) {
+                markDown(ex);
+            }
+        } catch (RuntimeException ex) {
+            markDown(ex);
+        }
+    }
+
+    /**
+     * Hikari times out with an SQLTransientConnectionException both when it cannot connect (the
+     * last connection failure is then the cause) and when every pooled connection is in use (no
+     * cause). Only the first means the replica is down; a busy replica just sends this read elsewhere.
+     */
+    private boolean isPoolExhausted(SQLException ex) {
+        return ex instanceof SQLTransientConnectionException && ex.getCause() == null
+            && dataSource instanceof HikariDataSource pool && pool.getHikariPoolMXBean() != null
+            && pool.getHikariPoolMXBean().getTotalConnections() > 0;
+    }
+
+    private void markDown(Exception ex) {
+        if (healthy) {
+            log.warn("Replica {} is unreachable, its reads go to the other replicas or the primary: {}",
+                name, ex.getMessage());
+        }
+        healthy = false;
+        lastError = ex.getMessage();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
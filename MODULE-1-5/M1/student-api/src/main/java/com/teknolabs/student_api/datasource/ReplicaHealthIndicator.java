@@ -0,0 +1,37 @@
+package com.teknolabs.student_api.datasource;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State of every read replica. Always up: reads fail over to the primary, whose health is
+ * reported by the standard db indicator.
+ */
+public class ReplicaHealthIndicator extends AbstractHealthIndicator {
+
+    private final ReplicaSet replicas;
+
+    public ReplicaHealthIndicator(ReplicaSet replicas) {
+        this.replicas = replicas;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        long healthy = 0;
+        for (Replica replica : replicas.getReplicas()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", replica.isHealthy() ? "UP" : "DOWN");
+            if (replica.getLastError() != null) {
+                details.put("error", replica.getLastError());
+            }
+            builder.withDetail(replica.getName(), details);
+            if (replica.isHealthy()) {
+                healthy++;
+            }
+        }
+        builder.up().withDetail("healthy", healthy);
+    }
+}
@@ -0,0 +1,96 @@
+package com.teknolabs.student_api.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else. A read goes to the primary anyway when its client wrote within the read-your-writes
+ * window, when it loads a shared cache, or when no replica can be reached.
+ * <p>
+ * The transaction's read-only flag is only known once it has begun, so this data source has to be
+ * wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which
+ * asks for the connection at the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaSet replicas;
+    private final ReadYourWrites readYourWrites;
+
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter cacheLoadReads;
+    private final Counter failoverReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicas, ReadYourWrites readYourWrites,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+        this.replicaReads = readCounter(meterRegistry, "replica", "replica");
+        this.stickyReads = readCounter(meterRegistry, "primary", "read-your-writes");
+        this.cacheLoadReads = readCounter(meterRegistry, "primary", "cache-load");
+        this.failoverReads = readCounter(meterRegistry, "primary", "failover");
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("student.datasource.reads")
+            .description("Connections handed to read-only transactions, by database and reason")
+            .tag("target", target)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return primary.getConnection();
+        }
+        if (readYourWrites.isActive()) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        if (PrimaryReads.isRequired()) {
+            cacheLoadReads.increment();
+            return primary.getConnection();
+        }
+        for (Replica replica : replicas.candidates()) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException ex) {
+                // Marked down by the replica itself; try the next one
+            }
+        }
+        failoverReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Credentials are configured per pool and cannot be passed per connection");
+    }
+
+    // A read-write transaction starts the read-your-writes window of its thread once it commits
+    private void trackWrite() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+            && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWrites.recordWrite();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.teknolabs.student_api.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas, taken in turn, and the background health checks that take unreachable ones
+ * out of the rotation and put them back once they answer again.
+ */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final Duration healthCheckInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService checker;
+
+    public ReplicaSet(List<Replica> replicas, Duration healthCheckInterval, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.healthCheckInterval = healthCheckInterval;
+        Gauge.builder("student.datasource.replicas.healthy", this,
+                set -> set.replicas.stream().filter(Replica::isHealthy).count())
+            .description("Read replicas currently receiving reads")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Checks every replica once, so that reads never wait on one that is down at startup, then
+     * keeps checking in the background.
+     */
+    public void start() {
+        checkHealth();
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheckInterval.toMillis();
+        checker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void checkHealth() {
+        replicas.forEach(Replica::check);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Healthy replicas, starting with the one after the replica the previous read started with.
+     */
+    List<Replica> candidates() {
+        int size = replicas.size();
+        List<Replica> candidates = new ArrayList<>(size);
+        if (size == 0) {
+            return candidates;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                candidates.add(replica);
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            try {
+                replica.close();
+            } catch (Exception ex) {
+                log.debug("Could not close replica {}", replica.getName(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.teknolabs.student_api.event;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, on a fixed array of slots.
+ * Each slot carries a sequence number telling whether it is free for the producer claiming
+ * position {@code p} ({@code sequence == p}) or holds that producer's element
+ * ({@code sequence == p + 1}). Producers claim positions with a CAS on the tail, so a full buffer
+ * is reported immediately instead of blocking; the consumer needs no atomic operation at all.
+ */
+final class EventRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two so positions map to slots with a mask
+     */
+    EventRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2, was " + capacity);
+        }
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = slots - 1;
+        this.elements = new AtomicReferenceArray<>(slots);
+        this.sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element unless the buffer is full. Safe to call from any number of threads.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long lag = sequences.get(slot) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    // Publishes the element: the consumer reads the sequence before the slot
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                // The slot still holds the element from one lap ago
+                return false;
+            } else {
+                // Another producer claimed this position first
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} elements, oldest first, into the target. Only one thread may drain
+     * at a time. Stops early at a slot whose producer has claimed it but not yet filled it.
+     */
+    int drainTo(Collection<? super E> target, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                break;
+            }
+            target.add(elements.get(slot));
+            elements.lazySet(slot, null);
+            // Frees the slot for the producer one lap ahead
+            sequences.set(slot, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,337 @@
+package com.teknolabs.student_api.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentEvent;
+import com.teknolabs.student_api.model.StudentEventType;
+import com.teknolabs.student_api.model.StudentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind log of student changes. Writes record their events once they commit; events wait
+ * in a bounded ring buffer and a background thread appends them to {@code student_events} in
+ * batches, every flush interval or as soon as a full batch is waiting. The writes themselves
+ * never wait for the log, unless the buffer is full: then the writer waits up to the offer timeout
+ * for room and finally flushes the buffer itself, which slows writers down to the pace of the
+ * database instead of dropping events or growing the heap.
+ * <p>
+ * Events are buffered in memory, so those not yet flushed are lost if the process dies.
+ */
+@Slf4j
+@Component
+public class StudentEventLog {
+
+    private static final String INSERT = "INSERT INTO student_events "
+        + "(student_id, event_type, student_status, payload, actor, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT = "SELECT id, student_id, event_type, student_status, payload, actor, occurred_at "
+        + "FROM student_events ";
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private static final RowMapper<StudentEvent> ROW_MAPPER = (rs, rowNum) -> {
+        StudentEvent event = new StudentEvent();
+        event.setId(rs.getLong("id"));
+        event.setStudentId(rs.getLong("student_id"));
+        event.setType(StudentEventType.valueOf(rs.getString("event_type")));
+        String status = rs.getString("student_status");
+        event.setStatus(status == null ? null : StudentStatus.valueOf(status));
+        event.setPayload(rs.getString("payload"));
+        event.setActor(rs.getString("actor"));
+        event.setOccurredAt(rs.getTimestamp("occurred_at").toLocalDateTime());
+        return event;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuditorAware<String> auditorProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${student.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${student.events.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${student.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${student.events.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    @Value("${student.events.offer-timeout:100ms}")
+    private Duration offerTimeout;
+
+    private EventRingBuffer<StudentEvent> buffer;
+    // Only one thread drains the buffer at a time; producers never take it unless the buffer is full
+    private final ReentrantLock drainLock = new ReentrantLock();
+    // Drained but not yet written, kept for the next attempt when a write fails
+    private final List<StudentEvent> pending = new ArrayList<>();
+    private volatile boolean running;
+    private Thread flusher;
+
+    private Counter written;
+    private Counter backpressure;
+    private Counter dropped;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        buffer = new EventRingBuffer<>(bufferSize);
+        Gauge.builder("student.events.buffered", buffer, EventRingBuffer::size)
+            .description("Student events waiting to be written to the log")
+            .register(meterRegistry);
+        written = Counter.builder("student.events.written")
+            .description("Student events appended to the log")
+            .register(meterRegistry);
+        backpressure = Counter.builder("student.events.backpressure")
+            .description("Writes that found the event buffer full and had to wait for room")
+            .register(meterRegistry);
+        dropped = Counter.builder("student.events.dropped")
+            .description("Student events lost because the buffer was full and the log could not be written")
+            .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "student-events-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (DataAccessException ex) {
+            log.warn("{} student events could not be written at shutdown", pending.size() + buffer.size(), ex);
+        }
+    }
+
+    public void created(Student student) {
+        afterCommit(() -> publish(snapshot(StudentEventType.CREATED, student)));
+    }
+
+    public void created(Collection<Student> students) {
+        List<Student> created = List.copyOf(students);
+        afterCommit(() -> created.forEach(student -> publish(snapshot(StudentEventType.CREATED, student))));
+    }
+
+    public void updated(Student student) {
+        afterCommit(() -> publish(snapshot(StudentEventType.UPDATED, student)));
+    }
+
+    /**
+     * Records a status change of each given student. Status events carry no snapshot, as bulk
+     * transitions never load the students.
+     */
+    public void statusChanged(Collection<Long> ids, StudentStatus status) {
+        List<Long> changed = List.copyOf(ids);
+        afterCommit(() -> changed.forEach(id -> {
+            StudentEvent event = event(StudentEventType.STATUS_CHANGED, id);
+            event.setStatus(status);
+            publish(event);
+        }));
+    }
+
+    public void deleted(Long id) {
+        afterCommit(() -> publish(event(StudentEventType.DELETED, id)));
+    }
+
+    /**
+     * Writes every buffered event now, on the calling thread.
+     */
+    public void flush() {
+        if (buffer == null) {
+            return;
+        }
+        drainLock.lock();
+        try {
+            while (writeBatch() > 0) {
+                // keep going until the buffer is empty
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Events of one student, oldest first. Buffered events are flushed first, so the history
+     * includes this node's latest changes.
+     */
+    public List<StudentEvent> findByStudent(Long studentId) {
+        flush();
+        return jdbcTemplate.query(SELECT + "WHERE student_id = ? ORDER BY id", ROW_MAPPER, studentId);
+    }
+
+    /**
+     * Up to {@code limit} events following the given event id, in log order.
+     */
+    public List<StudentEvent> findAfter(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT + "WHERE id > ? ORDER BY id LIMIT ?", ROW_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Up to {@code limit} ids of students with events, following the given student id, in id order.
+     */
+    public List<Long> findStudentIdsAfter(long afterStudentId, int limit) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT student_id FROM student_events WHERE student_id > ? "
+            + "ORDER BY student_id LIMIT ?", Long.class, afterStudentId, limit);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_events", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private void publish(StudentEvent event) {
+        if (buffer == null) {
+            return;
+        }
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(flusher);
+            }
+            return;
+        }
+        backpressure.increment();
+        LockSupport.unpark(flusher);
+        long deadline = System.nanoTime() + offerTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BACKOFF_NANOS);
+            if (buffer.offer(event)) {
+                return;
+            }
+        }
+        // The flusher is not keeping up: write the backlog here, which keeps the log in order
+        try {
+            do {
+                flush();
+            } while (!buffer.offer(event));
+        } catch (DataAccessException ex) {
+            dropped.increment();
+            log.error("Student event log is full and cannot be written, dropping {} event of student {}",
+                event.getType(), event.getStudentId(), ex);
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                int count;
+                drainLock.lock();
+                try {
+                    count = writeBatch();
+                } finally {
+                    drainLock.unlock();
+                }
+                // A full batch means more are probably waiting; otherwise let the next batch fill up
+                if (count < batchSize) {
+                    LockSupport.parkNanos(this, flushInterval.toNanos());
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Writing {} student events failed, retrying in {}", pending.size(), flushInterval, ex);
+                LockSupport.parkNanos(this, flushInterval.toNanos());
+            }
+        }
+    }
+
+    // Called with the drain lock held
+    private int writeBatch() {
+        if (pending.isEmpty()) {
+            buffer.drainTo(pending, batchSize);
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT, pending, pending.size(), (statement, event) -> {
+            statement.setLong(1, event.getStudentId());
+            statement.setString(2, event.getType().name());
+            statement.setString(3, event.getStatus() == null ? null : event.getStatus().name());
+            statement.setString(4, event.getPayload());
+            statement.setString(5, event.getActor());
+            statement.setTimestamp(6, Timestamp.valueOf(event.getOccurredAt()));
+        });
+        int count = pending.size();
+        written.increment(count);
+        pending.clear();
+        return count;
+    }
+
+    // Serialized after commit, so the payload carries the committed version and audit columns
+    private StudentEvent snapshot(StudentEventType type, Student student) {
+        StudentEvent event = event(type, student.getId());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(student));
+        } catch (JsonProcessingException ex) {
+            // Replay reloads students whose last event has no snapshot
+            log.warn("Could not serialize student {} for the event log", student.getId(), ex);
+        }
+        return event;
+    }
+
+    private StudentEvent event(StudentEventType type, Long studentId) {
+        StudentEvent event = new StudentEvent();
+        event.setStudentId(studentId);
+        event.setType(type);
+        event.setActor(auditorProvider.getCurrentAuditor().orElse(null));
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
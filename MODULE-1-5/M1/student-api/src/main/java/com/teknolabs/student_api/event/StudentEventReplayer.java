@@ -0,0 +1,79 @@
+package com.teknolabs.student_api.event;
+
+import com.teknolabs.student_api.cache.StudentQueryCache;
+import com.teknolabs.student_api.datasource.PrimaryReads;
+import com.teknolabs.student_api.model.ReplayResult;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.repository.StudentRepository;
+import com.teknolabs.student_api.search.StudentSearch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds the read side (entity cache and search index) of every student in the change-event
+ * log, e.g. after a cache flush or to repair an index that missed writes.
+ */
+@Slf4j
+@Service
+public class StudentEventReplayer {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private StudentEventLog studentEventLog;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentQueryCache studentQueryCache;
+
+    @Autowired
+    private StudentSearch studentSearch;
+
+    /**
+     * Walks the students in the log a page of ids at a time and reads each page back from the
+     * database: students found are cached and indexed again, missing ones dropped. The snapshots in
+     * the log are not used, as log order is not commit order: an older snapshot can follow a newer one.
+     */
+    public ReplayResult replay() {
+        long start = System.nanoTime();
+        studentEventLog.flush();
+
+        long events = studentEventLog.count();
+        long restored = 0;
+        long removed = 0;
+        long afterId = 0;
+        List<Long> page;
+        do {
+            page = studentEventLog.findStudentIdsAfter(afterId, PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            // Read from the primary: what is read here goes into the shared cache
+            List<Long> ids = page;
+            List<Student> students = PrimaryReads.get(() -> studentRepository.findAllById(ids));
+            Set<Long> missing = new HashSet<>(page);
+            students.forEach(student -> missing.remove(student.getId()));
+
+            studentQueryCache.evictStudents(missing);
+            missing.forEach(studentSearch::removeStudent);
+            studentQueryCache.cacheStudents(students);
+            studentSearch.indexStudents(students);
+            restored += students.size();
+            removed += missing.size();
+            afterId = page.get(page.size() - 1);
+        } while (page.size() == PAGE_SIZE);
+        studentQueryCache.invalidateQueries();
+
+        log.info("Replayed {} student events: {} students restored, {} removed in {} ms", events, restored,
+            removed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new ReplayResult(events, restored, removed);
+    }
+}
@@ -0,0 +1,38 @@
+package com.teknolabs.student_api.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while tracking is on, per
+ * statement text, so a request running the same statement over and over (N+1 selects) stands out.
+ * Statements run outside tracking, or through JDBC directly, are not counted.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Map<String, Integer>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Map<String, Integer> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    public void start() {
+        STATEMENTS.set(new HashMap<>());
+    }
+
+    /**
+     * Ends tracking on this thread and returns how many times each statement ran.
+     */
+    public Map<String, Integer> stop() {
+        Map<String, Integer> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements == null ? Map.of() : statements;
+    }
+}
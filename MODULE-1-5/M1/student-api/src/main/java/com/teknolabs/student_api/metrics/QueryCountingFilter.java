@@ -0,0 +1,83 @@
+package com.teknolabs.student_api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records how many SQL statements each request runs, tagged like {@code http.server.requests},
+ * and flags requests that run one statement at least {@code nPlusOneThreshold} times: the
+ * signature of a loop loading rows one by one. Statements run by streamed responses after the
+ * request thread is released are not counted.
+ */
+@Slf4j
+public class QueryCountingFilter extends OncePerRequestFilter {
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    // Registering a meter runs the registry's meter filters; looking it up here once per route does not
+    private final ConcurrentMap<Route, DistributionSummary> queryCounts = new ConcurrentHashMap<>();
+
+    public QueryCountingFilter(QueryCounter queryCounter, MeterRegistry meterRegistry, int nPlusOneThreshold) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        queryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            record(request, queryCounter.stop());
+        }
+    }
+
+    private void record(HttpServletRequest request, Map<String, Integer> statements) {
+        // The route template rather than the path, which would create a meter per student id
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Route route = new Route(request.getMethod(), pattern == null ? "UNKNOWN" : pattern.toString());
+        int total = 0;
+        for (Map.Entry<String, Integer> statement : statements.entrySet()) {
+            total += statement.getValue();
+            if (statement.getValue() >= nPlusOneThreshold) {
+                Counter.builder("student.requests.repeated.queries")
+                    .description("Requests that ran the same SQL statement many times (likely N+1 selects)")
+                    .tag("method", route.method())
+                    .tag("uri", route.uri())
+                    .register(meterRegistry)
+                    .increment();
+                log.warn("Possible N+1 selects: {} {} ran the same statement {} times: {}",
+                    route.method(), route.uri(), statement.getValue(), statement.getKey());
+            }
+        }
+        queryCounts.computeIfAbsent(route, this::queryCount).record(total);
+    }
+
+    private DistributionSummary queryCount(Route route) {
+        return DistributionSummary.builder("student.requests.queries")
+            .description("SQL statements run through Hibernate per request")
+            .baseUnit("statements")
+            .tag("method", route.method())
+            .tag("uri", route.uri())
+            .register(meterRegistry);
+    }
+
+    private record Route(String method, String uri) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.teknolabs.student_api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    // Opaque token to pass back as the cursor parameter; null on the last page
+    private String nextCursor;
+    // Only computed when the client asks for it, since it costs a COUNT(*)
+    private Long totalElements;
+}
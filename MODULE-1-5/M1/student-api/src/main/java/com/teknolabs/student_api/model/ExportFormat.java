@@ -0,0 +1,8 @@
+package com.teknolabs.student_api.model;
+
+public enum ExportFormat {
+    // One JSON document per line (application/x-ndjson)
+    NDJSON,
+    // A single JSON array written element by element
+    JSON
+}
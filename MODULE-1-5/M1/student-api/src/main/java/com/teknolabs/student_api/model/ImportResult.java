@@ -0,0 +1,27 @@
+package com.teknolabs.student_api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportResult {
+    private long received;
+    private long imported;
+    private long failed;
+    // Capped by student.import.max-reported-errors; failed holds the full count
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        // 1-based position of the record in the upload (CSV header excluded)
+        private long row;
+        private List<String> messages;
+    }
+}
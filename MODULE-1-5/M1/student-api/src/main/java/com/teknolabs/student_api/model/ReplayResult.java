@@ -0,0 +1,17 @@
+package com.teknolabs.student_api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReplayResult {
+    // Events in the log
+    private long events;
+    // Students put back into the cache and search index
+    private long restored;
+    // Students in the log but no longer in the database, dropped from both
+    private long removed;
+}
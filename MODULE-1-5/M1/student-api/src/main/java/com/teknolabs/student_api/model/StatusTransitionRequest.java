@@ -0,0 +1,37 @@
+package com.teknolabs.student_api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Schema(description = "Moves a set of students to a new status, selected either by id or by a predicate")
+public class StatusTransitionRequest {
+
+    @NotNull(message = "Target status is required")
+    @Schema(description = "Status to move the students to", example = "GRADUATED")
+    private StudentStatus status;
+
+    @Schema(description = "Ids of the students to update", example = "[1, 2, 3]")
+    private List<Long> ids;
+
+    @Schema(description = "Select students currently in this status", example = "ACTIVE")
+    private StudentStatus currentStatus;
+
+    @Schema(description = "With currentStatus: only students born on or after this date", example = "2000-01-01")
+    private LocalDate bornAfter;
+
+    @Schema(description = "With currentStatus: only students born on or before this date", example = "2002-12-31")
+    private LocalDate bornBefore;
+
+    @AssertTrue(message = "Provide either ids or currentStatus, not both")
+    @Schema(hidden = true)
+    public boolean isSelectionValid() {
+        boolean byIds = ids != null && !ids.isEmpty();
+        return byIds != (currentStatus != null);
+    }
+}
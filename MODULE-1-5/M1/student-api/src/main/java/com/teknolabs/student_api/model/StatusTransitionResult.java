@@ -0,0 +1,16 @@
+package com.teknolabs.student_api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatusTransitionResult {
+    private StudentStatus status;
+    // Rows actually changed; students already in the target status are not counted
+    private long updated;
+    // Number of UPDATE statements (one per chunk) that were executed
+    private int batches;
+}
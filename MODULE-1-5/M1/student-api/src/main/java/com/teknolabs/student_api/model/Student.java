@@ -8,7 +8,9 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
@@ -32,7 +34,8 @@ import java.time.LocalDateTime;
 @Schema(description = "Student entity representing a student in the system")
 public class Student {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     @Schema(description = "Unique identifier of the student", example = "1")
     private Long id;
 
@@ -77,4 +80,8 @@ public class Student {
     @LastModifiedBy
     @Column(name = "last_modified_by")
     private String lastModifiedBy;
+
+    @Version
+    @Schema(description = "Incremented on every change; the student's ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
 }
@@ -0,0 +1,47 @@
+package com.teknolabs.student_api.model;
+
+import com.teknolabs.student_api.exception.BadRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated listing: the sort key of the last row returned.
+ * Clients only ever see it as an opaque, URL-safe token.
+ */
+@Value
+public class StudentCursor {
+
+    public enum SortKey {
+        ID,
+        NAME
+    }
+
+    SortKey sortKey;
+    String name;
+    Long id;
+
+    public static StudentCursor first(SortKey sortKey) {
+        return new StudentCursor(sortKey, "", 0L);
+    }
+
+    public static StudentCursor after(Student student, SortKey sortKey) {
+        return new StudentCursor(sortKey, sortKey == SortKey.NAME ? student.getName() : "", student.getId());
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + "|" + id + "|" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StudentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            return new StudentCursor(SortKey.valueOf(parts[0]), parts[2], Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.teknolabs.student_api.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "A change made to a student, as recorded in the change-event log")
+public class StudentEvent {
+    // Assigned when the event is written; orders the log
+    private Long id;
+    private Long studentId;
+    private StudentEventType type;
+    // New status of STATUS_CHANGED events
+    private StudentStatus status;
+    // The student as committed (JSON), for CREATED and UPDATED events
+    @JsonRawValue
+    private String payload;
+    private String actor;
+    private LocalDateTime occurredAt;
+}
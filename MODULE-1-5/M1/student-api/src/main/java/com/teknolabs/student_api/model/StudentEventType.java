@@ -0,0 +1,8 @@
+package com.teknolabs.student_api.model;
+
+public enum StudentEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+}
@@ -0,0 +1,46 @@
+package com.teknolabs.student_api.model;
+
+import com.teknolabs.student_api.exception.BadRequestException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Student fields selected by a client ({@code ?fields=id,name}), in the order given. Names are
+ * those of the JSON representation, which are also the entity attribute names, so only known
+ * names ever reach a query.
+ */
+public final class StudentFieldSet {
+
+    public static final List<String> FIELDS = List.of("id", "name", "email", "dateOfBirth", "phoneNumber",
+        "status", "createdDate", "lastModifiedDate", "createdBy", "lastModifiedBy");
+
+    private final List<String> names;
+
+    private StudentFieldSet(List<String> names) {
+        this.names = names;
+    }
+
+    public static StudentFieldSet parse(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!FIELDS.contains(name)) {
+                throw new BadRequestException("Unknown student field '" + name + "', expected some of " + FIELDS);
+            }
+            names.add(name);
+        }
+        if (names.isEmpty()) {
+            throw new BadRequestException("At least one student field must be selected");
+        }
+        return new StudentFieldSet(List.copyOf(names));
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+}
@@ -0,0 +1,7 @@
+package com.teknolabs.student_api.model;
+
+/**
+ * Id and current status of a student, read while locking it for a status transition.
+ */
+public record StudentIdStatus(Long id, StudentStatus status) {
+}
@@ -0,0 +1,27 @@
+package com.teknolabs.student_api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentStats {
+    private long total;
+    private Map<StudentStatus, Long> byStatus;
+    // Keyed by birth year, "unknown" for students without a date of birth
+    private Map<String, Long> byBirthYear;
+    // COUNTERS when answered from the incrementally kept counts, DATABASE until those are first reconciled
+    private Source source;
+    // When the counts were last checked against the database
+    private LocalDateTime reconciledAt;
+
+    public enum Source {
+        COUNTERS,
+        DATABASE
+    }
+}
@@ -0,0 +1,11 @@
+package com.teknolabs.student_api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * The columns list views need, read straight from the query into this record rather than into
+ * managed {@link Student} entities.
+ */
+@Schema(description = "Id, name, email and status of a student")
+public record StudentSummary(Long id, String name, String email, StudentStatus status) {
+}
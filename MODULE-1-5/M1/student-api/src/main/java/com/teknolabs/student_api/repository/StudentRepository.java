@@ -1,18 +1,33 @@
 package com.teknolabs.student_api.repository;
 
 import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentIdStatus;
 import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.model.StudentSummary;
+import com.teknolabs.student_api.search.SearchDocument;
+import com.teknolabs.student_api.stats.CohortCount;
+import com.teknolabs.student_api.stats.StatusCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
@@ -20,6 +35,10 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     // Find by email (unique)
     Optional<Student> findByEmail(String email);
     
+    // Emails among the given ones that are already taken
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     // Find by name containing (case-insensitive)
     Page<Student> findByNameContainingIgnoreCase(String name, Pageable pageable);
     
@@ -34,7 +53,18 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     // Count students by status
     long countByStatus(StudentStatus status);
-    
+
+    // Per-status and per-birth-year counts, to reconcile the incrementally kept ones with
+    @Query("SELECT new com.teknolabs.student_api.stats.StatusCount(s.status, COUNT(s)) FROM Student s GROUP BY s.status")
+    List<StatusCount> countPerStatus();
+
+    @Query("SELECT new com.teknolabs.student_api.stats.CohortCount(YEAR(s.dateOfBirth), COUNT(s)) " +
+           "FROM Student s GROUP BY YEAR(s.dateOfBirth)")
+    List<CohortCount> countPerBirthYear();
+
+    @Query("SELECT s.status FROM Student s WHERE s.id = :id")
+    Optional<StudentStatus> findStatusById(@Param("id") Long id);
+
     // Custom JPQL query to find active students with pagination
     @Query("SELECT s FROM Student s WHERE s.status = 'ACTIVE'")
     Page<Student> findActiveStudents(Pageable pageable);
@@ -44,12 +74,106 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
            "OR LOWER(s.email) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Student> searchStudents(@Param("keyword") String keyword, Pageable pageable);
     
-    // Update student status
+    // Update student status if it is still the previous one (0 rows when another writer changed it first);
+    // bulk updates bypass @Version and auditing, so the version and audit columns (which ETag and
+    // Last-Modified are built from) are set explicitly
     @Modifying
-    @Query("UPDATE Student s SET s.status = :status WHERE s.id = :id")
-    int updateStudentStatus(@Param("id") Long id, @Param("status") StudentStatus status);
+    @Query("UPDATE Student s SET s.status = :status, s.lastModifiedDate = :modifiedDate, s.lastModifiedBy = :modifiedBy, " +
+           "s.version = s.version + 1 WHERE s.id = :id AND s.status = :previous")
+    int updateStudentStatus(@Param("id") Long id, @Param("previous") StudentStatus previous,
+                            @Param("status") StudentStatus status,
+                            @Param("modifiedDate") LocalDateTime modifiedDate, @Param("modifiedBy") String modifiedBy);
     
+    // Locks a chunk of students and reads the status each is in, so that the update that follows in the
+    // same transaction changes exactly the rows not yet in the target status, and their counts are known
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.teknolabs.student_api.model.StudentIdStatus(s.id, s.status) FROM Student s WHERE s.id IN :ids")
+    List<StudentIdStatus> lockStatusesByIds(@Param("ids") Collection<Long> ids);
+
+    // Bulk status transition for a chunk of ids, audit columns included; students already in the
+    // target status are left alone
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Student s SET s.status = :status, s.lastModifiedDate = :modifiedDate, s.lastModifiedBy = :modifiedBy, " +
+           "s.version = s.version + 1 WHERE s.id IN :ids AND s.status <> :status")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") StudentStatus status,
+                          @Param("modifiedDate") LocalDateTime modifiedDate, @Param("modifiedBy") String modifiedBy);
+
+    // Next chunk of ids matching a status transition predicate, in id order, locked until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s.id FROM Student s WHERE s.status = :currentStatus AND s.id > :afterId " +
+           "AND (:bornAfter IS NULL OR s.dateOfBirth >= :bornAfter) " +
+           "AND (:bornBefore IS NULL OR s.dateOfBirth <= :bornBefore) ORDER BY s.id")
+    List<Long> lockIdsForTransition(@Param("currentStatus") StudentStatus currentStatus,
+                                    @Param("bornAfter") LocalDate bornAfter, @Param("bornBefore") LocalDate bornBefore,
+                                    @Param("afterId") Long afterId, Limit limit);
+
+    // Bulk status transition for those of a chunk of ids that still match the predicate they were selected
+    // by; the row count is then exactly how many students left currentStatus
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Student s SET s.status = :status, s.lastModifiedDate = :modifiedDate, s.lastModifiedBy = :modifiedBy, " +
+           "s.version = s.version + 1 WHERE s.id IN :ids AND s.status = :currentStatus " +
+           "AND (:bornAfter IS NULL OR s.dateOfBirth >= :bornAfter) " +
+           "AND (:bornBefore IS NULL OR s.dateOfBirth <= :bornBefore)")
+    int updateStatusWhere(@Param("ids") Collection<Long> ids, @Param("currentStatus") StudentStatus currentStatus,
+                          @Param("bornAfter") LocalDate bornAfter, @Param("bornBefore") LocalDate bornBefore,
+                          @Param("status") StudentStatus status,
+                          @Param("modifiedDate") LocalDateTime modifiedDate, @Param("modifiedBy") String modifiedBy);
+
     // Find students by multiple statuses
     List<Student> findByStatusIn(List<StudentStatus> statuses);
+
+    // Stream students for export; rows are fetched in chunks and loaded read-only (no dirty-checking snapshot)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT s FROM Student s WHERE (:status IS NULL OR s.status = :status) " +
+           "AND (:bornAfter IS NULL OR s.dateOfBirth >= :bornAfter) " +
+           "AND (:bornBefore IS NULL OR s.dateOfBirth <= :bornBefore) ORDER BY s.id")
+    Stream<Student> streamForExport(@Param("status") StudentStatus status,
+                                    @Param("bornAfter") LocalDate bornAfter,
+                                    @Param("bornBefore") LocalDate bornBefore);
+
+    // Stream the searchable columns of every student to build the search index
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.teknolabs.student_api.search.SearchDocument(s.id, s.name, s.email) FROM Student s")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    // Summary columns read straight into records: no entity hydration, persistence context entries or
+    // dirty-checking snapshots, and nothing to flush before the query
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(value = "SELECT new com.teknolabs.student_api.model.StudentSummary(s.id, s.name, s.email, s.status) " +
+                   "FROM Student s",
+           countQuery = "SELECT COUNT(s) FROM Student s")
+    Page<StudentSummary> findSummaries(Pageable pageable);
+
+    // Same page without the count query (one extra row tells whether there is a next page)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("SELECT new com.teknolabs.student_api.model.StudentSummary(s.id, s.name, s.email, s.status) " +
+           "FROM Student s")
+    Slice<StudentSummary> findSummarySlice(Pageable pageable);
+
+    // Keyset pagination: seek past the last (id) or (name, id) seen instead of counting an offset.
+    // The name >= bound is implied by the OR but lets the database seek the (name, id) index to it;
+    // with the OR alone H2 walks the index from the start and a deep page costs as much as an offset.
+    @Query("SELECT s FROM Student s WHERE s.id > :afterId ORDER BY s.id")
+    List<Student> findNextById(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT s FROM Student s WHERE s.name >= :afterName " +
+           "AND (s.name > :afterName OR s.id > :afterId) ORDER BY s.name, s.id")
+    List<Student> findNextByName(@Param("afterName") String afterName, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT s FROM Student s WHERE s.status = :status AND s.id > :afterId ORDER BY s.id")
+    List<Student> findNextByStatusAndId(@Param("status") StudentStatus status, @Param("afterId") Long afterId,
+                                        Limit limit);
+
+    @Query("SELECT s FROM Student s WHERE s.status = :status AND s.name >= :afterName " +
+           "AND (s.name > :afterName OR s.id > :afterId) ORDER BY s.name, s.id")
+    List<Student> findNextByStatusAndName(@Param("status") StudentStatus status, @Param("afterName") String afterName,
+                                          @Param("afterId") Long afterId, Limit limit);
 }
 
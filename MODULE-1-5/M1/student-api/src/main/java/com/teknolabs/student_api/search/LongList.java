@@ -0,0 +1,52 @@
+package com.teknolabs.student_api.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of primitive longs, used for posting lists so that a million ids cost 8 MB rather
+ * than a boxed collection's 50+ MB. Ids mostly arrive in increasing order (rebuilds stream by id,
+ * new students get the highest ids), so adding is usually an append; finding an id to remove is a
+ * binary search. Not thread-safe; guarded by the index lock.
+ */
+final class LongList {
+
+    private long[] values = new long[2];
+    private int size;
+
+    void add(long value) {
+        int index = size;
+        if (size > 0 && values[size - 1] >= value) {
+            index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+
+    void remove(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) {
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+        }
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.teknolabs.student_api.search;
+
+/**
+ * The fields of a student that the search index needs.
+ */
+public record SearchDocument(Long id, String name, String email) {
+}
@@ -0,0 +1,224 @@
+package com.teknolabs.student_api.search;
+
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.repository.StudentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link StudentSearchIndex} in line with the database and answers searches from it.
+ * The index is built from the database in the background once the application is ready and then
+ * updated after every committed write of this node. Until the first build completes, and for sort
+ * orders the index cannot produce, {@link #search} returns empty and callers fall back to SQL.
+ */
+@Slf4j
+@Component
+public class StudentSearch {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final StudentSearchIndex index = new StudentSearchIndex();
+    private ScheduledExecutorService rebuilder;
+
+    @Value("${student.search.enabled:false}")
+    private boolean enabled;
+
+    // Other nodes' writes are only picked up by a rebuild; 0 disables periodic rebuilds
+    @Value("${student.search.rebuild-interval:0}")
+    private Duration rebuildInterval;
+
+    public StudentSearch(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-search-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (rebuildInterval.isZero() || rebuildInterval.isNegative()) {
+            rebuilder.execute(this::rebuildQuietly);
+        } else {
+            rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Searches keep using the previous index meanwhile.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<SearchDocument> documents = studentRepository.streamSearchDocuments()) {
+                index.rebuild(documents);
+            }
+        });
+        log.info("Student search index built: {} students in {} ms", index.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public boolean isReady() {
+        return enabled && index.isReady();
+    }
+
+    /**
+     * Indexes a saved student once the current transaction commits (immediately outside one).
+     */
+    public void indexStudent(Student student) {
+        SearchDocument document = new SearchDocument(student.getId(), student.getName(), student.getEmail());
+        afterCommit(() -> index.index(document));
+    }
+
+    public void indexStudents(Collection<Student> students) {
+        List<SearchDocument> documents = students.stream()
+            .map(student -> new SearchDocument(student.getId(), student.getName(), student.getEmail()))
+            .toList();
+        afterCommit(() -> documents.forEach(index::index));
+    }
+
+    public void removeStudent(Long id) {
+        afterCommit(() -> index.remove(id));
+    }
+
+    /**
+     * Searches names and emails by whole words, prefixes, infixes and close spellings. Unsorted
+     * pages are ordered by relevance; sorting by name and/or id is also supported.
+     */
+    public Optional<Page<Student>> search(String keyword, Pageable pageable) {
+        Comparator<StudentSearchIndex.Hit> order = comparator(pageable.getSort());
+        if (!isReady() || order == null) {
+            return Optional.empty();
+        }
+        List<StudentSearchIndex.Hit> hits = index.search(keyword);
+        int total = hits.size();
+
+        List<StudentSearchIndex.Hit> slice;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), total);
+            int to = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), total);
+            slice = top(hits, order, to).subList(from, to);
+        } else {
+            hits.sort(order);
+            slice = hits;
+        }
+        List<Long> ids = slice.stream().map(StudentSearchIndex.Hit::id).toList();
+        Map<Long, Student> students = studentRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Student::getId, Function.identity()));
+        // A student deleted by another node may still be indexed: it is skipped, the total is not corrected
+        List<Student> content = ids.stream().map(students::get).filter(Objects::nonNull).toList();
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * The first {@code limit} hits in order, without sorting all of them: a short keyword can
+     * match a large part of the table while a page only shows a handful.
+     */
+    private static List<StudentSearchIndex.Hit> top(List<StudentSearchIndex.Hit> hits,
+                                                    Comparator<StudentSearchIndex.Hit> order, int limit) {
+        if (limit >= hits.size() / 2) {
+            hits.sort(order);
+            return hits;
+        }
+        PriorityQueue<StudentSearchIndex.Hit> worstFirst = new PriorityQueue<>(limit + 1, order.reversed());
+        for (StudentSearchIndex.Hit hit : hits) {
+            if (worstFirst.size() < limit) {
+                worstFirst.add(hit);
+            } else if (limit > 0 && order.compare(hit, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(hit);
+            }
+        }
+        List<StudentSearchIndex.Hit> top = new ArrayList<>(worstFirst);
+        top.sort(order);
+        return top;
+    }
+
+    private static Comparator<StudentSearchIndex.Hit> comparator(Sort sort) {
+        if (sort.isUnsorted()) {
+            return StudentSearchIndex.BY_RELEVANCE;
+        }
+        Comparator<StudentSearchIndex.Hit> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<StudentSearchIndex.Hit> next;
+            if ("name".equals(order.getProperty())) {
+                next = Comparator.comparing(StudentSearchIndex.Hit::name,
+                    order.isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder());
+            } else if ("id".equals(order.getProperty())) {
+                next = Comparator.comparingLong(StudentSearchIndex.Hit::id);
+            } else {
+                return null;
+            }
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator.thenComparingLong(StudentSearchIndex.Hit::id);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Student search index rebuild failed, searches keep using the database or the previous index", ex);
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.teknolabs.student_api.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over student names and emails.
+ * <p>
+ * Both fields are split into lowercase, accent-free terms (letters and digits are separate terms,
+ * so {@code jane.doe42@example.com} gives {@code jane, doe, 42, example, com}). Every term maps to a
+ * posting list of student ids. Query terms are expanded against the term dictionary, never against
+ * the documents: exact terms, prefixes, infixes (through a trigram index over the dictionary) and,
+ * for words of four letters or more, terms within one or two edits. A student matches when every
+ * query term matches one of its terms; its relevance is the sum of the best match of each query term.
+ */
+public class StudentSearchIndex {
+
+    static final float EXACT = 1.0f;
+    static final float PREFIX = 0.8f;
+    static final float INFIX = 0.6f;
+    static final float ONE_EDIT = 0.5f;
+    static final float TWO_EDITS = 0.3f;
+
+    // Upper bound on the terms a single prefix expands to, so "a" does not touch the whole dictionary
+    private static final int MAX_PREFIX_EXPANSIONS = 128;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    public record Hit(long id, float score, String name) {
+    }
+
+    private final Object writeMonitor = new Object();
+    private final Object rebuildMonitor = new Object();
+    private volatile Segment segment = new Segment();
+    private volatile boolean ready;
+    // Only set while a rebuild is running; both guarded by writeMonitor
+    private Segment building;
+    private Set<Long> touchedDuringBuild;
+
+    /**
+     * True once a full rebuild has completed; until then the index may be missing students.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return segment.size();
+    }
+
+    public void index(SearchDocument document) {
+        synchronized (writeMonitor) {
+            segment.put(document);
+            if (building != null) {
+                building.put(document);
+                touchedDuringBuild.add(document.id());
+            }
+        }
+    }
+
+    public void remove(long id) {
+        synchronized (writeMonitor) {
+            segment.remove(id);
+            if (building != null) {
+                building.remove(id);
+                touchedDuringBuild.add(id);
+            }
+        }
+    }
+
+    /**
+     * Builds a fresh index from the given documents while the current one keeps serving searches,
+     * then swaps them. Writes arriving during the rebuild go to both, and win over the (older) rows
+     * still being streamed. Concurrent rebuilds run one after the other.
+     */
+    public void rebuild(Stream<SearchDocument> documents) {
+        synchronized (rebuildMonitor) {
+            Segment next = new Segment();
+            Set<Long> touched = new HashSet<>();
+            synchronized (writeMonitor) {
+                building = next;
+                touchedDuringBuild = touched;
+            }
+            try {
+                documents.forEach(document -> {
+                    synchronized (writeMonitor) {
+                        if (!touched.contains(document.id())) {
+                            next.put(document);
+                        }
+                    }
+                });
+                synchronized (writeMonitor) {
+                    segment = next;
+                    ready = true;
+                }
+            } finally {
+                synchronized (writeMonitor) {
+                    building = null;
+                    touchedDuringBuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns every matching student, unordered, in a list the caller may sort.
+     */
+    public List<Hit> search(String keyword) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(keyword)));
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return segment.search(terms);
+    }
+
+    static final Comparator<Hit> BY_RELEVANCE = Comparator.comparingDouble(Hit::score).reversed()
+        .thenComparing(Hit::name, String.CASE_INSENSITIVE_ORDER)
+        .thenComparingLong(Hit::id);
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        }
+        String normalized = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            boolean boundary = !Character.isLetterOrDigit(c)
+                || (start >= 0 && Character.isDigit(c) != Character.isDigit(normalized.charAt(start)));
+            if (boundary && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+            if (start < 0 && Character.isLetterOrDigit(c)) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isWord(String term) {
+        return Character.isLetter(term.charAt(0));
+    }
+
+    private static List<String> trigrams(String term) {
+        List<String> trigrams = new ArrayList<>(term.length() - 2);
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            trigrams.add(term.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions),
+     * giving up as soon as it must exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * One generation of the index. Plain collections behind a read/write lock: searches share the
+     * read lock, and a write only holds the write lock for the few terms of one student.
+     */
+    private static final class Segment {
+
+        private record Entry(String name, String[] terms) {
+        }
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Entry> documents = new HashMap<>();
+        private final NavigableMap<String, LongList> postings = new TreeMap<>();
+        private final Map<String, Set<String>> trigramTerms = new HashMap<>();
+        // Words by first letter and length: the typo candidates a trigram cannot find
+        private final Map<Integer, Set<String>> typoBuckets = new HashMap<>();
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return documents.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(SearchDocument document) {
+            Set<String> distinct = new LinkedHashSet<>(tokenize(document.name()));
+            distinct.addAll(tokenize(document.email()));
+            String[] terms = distinct.toArray(String[]::new);
+            long id = document.id();
+
+            lock.writeLock().lock();
+            try {
+                Entry previous = documents.get(id);
+                if (previous != null && Arrays.equals(previous.terms(), terms)) {
+                    documents.put(id, new Entry(document.name(), previous.terms()));
+                    return;
+                }
+                // Only the terms that changed touch the postings, e.g. a new email leaves the name's alone
+                Map<String, String> kept = new HashMap<>();
+                if (previous != null) {
+                    for (String term : previous.terms()) {
+                        if (distinct.contains(term)) {
+                            kept.put(term, term);
+                        } else {
+                            removeTerm(term, id);
+                        }
+                    }
+                }
+                for (int i = 0; i < terms.length; i++) {
+                    String shared = kept.get(terms[i]);
+                    terms[i] = shared != null ? shared : addTerm(terms[i], id);
+                }
+                documents.put(id, new Entry(document.name(), terms));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                Entry previous = documents.remove(id);
+                if (previous != null) {
+                    for (String term : previous.terms()) {
+                        removeTerm(term, id);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Returns the dictionary's own instance of the term so documents share term strings
+        private String addTerm(String term, long id) {
+            Map.Entry<String, LongList> existing = postings.ceilingEntry(term);
+            if (existing != null && existing.getKey().equals(term)) {
+                existing.getValue().add(id);
+                return existing.getKey();
+            }
+            LongList ids = new LongList();
+            ids.add(id);
+            postings.put(term, ids);
+            if (isWord(term) && term.length() >= 3) {
+                for (String trigram : trigrams(term)) {
+                    trigramTerms.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+                }
+                typoBuckets.computeIfAbsent(typoBucket(term.charAt(0), term.length()), key -> new HashSet<>())
+                    .add(term);
+            }
+            return term;
+        }
+
+        private void removeTerm(String term, long id) {
+            LongList ids = postings.get(term);
+            if (ids == null) {
+                return;
+            }
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                if (isWord(term) && term.length() >= 3) {
+                    for (String trigram : trigrams(term)) {
+                        Set<String> terms = trigramTerms.get(trigram);
+                        if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                            trigramTerms.remove(trigram);
+                        }
+                    }
+                    int bucket = typoBucket(term.charAt(0), term.length());
+                    Set<String> terms = typoBuckets.get(bucket);
+                    if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                        typoBuckets.remove(bucket);
+                    }
+                }
+            }
+        }
+
+        List<Hit> search(List<String> queryTerms) {
+            lock.readLock().lock();
+            try {
+                List<Map<String, Float>> expansions = new ArrayList<>(queryTerms.size());
+                for (String queryTerm : queryTerms) {
+                    Map<String, Float> expansion = expand(queryTerm);
+                    if (expansion.isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                    expansions.add(expansion);
+                }
+                // Start from the most selective term so the candidate set shrinks fast
+                expansions.sort(Comparator.comparingLong(this::postingCount));
+
+                Map<Long, Float> scores = null;
+                for (Map<String, Float> expansion : expansions) {
+                    Map<Long, Float> next = new HashMap<>();
+                    for (Map.Entry<String, Float> match : expansion.entrySet()) {
+                        LongList ids = postings.get(match.getKey());
+                        for (int i = 0; i < ids.size(); i++) {
+                            Long id = ids.get(i);
+                            float base = 0;
+                            if (scores != null) {
+                                Float previous = scores.get(id);
+                                if (previous == null) {
+                                    continue;
+                                }
+                                base = previous;
+                            }
+                            next.merge(id, base + match.getValue(), Math::max);
+                        }
+                    }
+                    scores = next;
+                    if (scores.isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                }
+
+                List<Hit> hits = new ArrayList<>(scores.size());
+                for (Map.Entry<Long, Float> score : scores.entrySet()) {
+                    hits.add(new Hit(score.getKey(), score.getValue(), documents.get(score.getKey()).name()));
+                }
+                return hits;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private long postingCount(Map<String, Float> expansion) {
+            long count = 0;
+            for (String term : expansion.keySet()) {
+                count += postings.get(term).size();
+            }
+            return count;
+        }
+
+        private Map<String, Float> expand(String queryTerm) {
+            Map<String, Float> matches = new HashMap<>();
+            if (postings.containsKey(queryTerm)) {
+                matches.put(queryTerm, EXACT);
+            }
+            int expanded = 0;
+            for (String term : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+                if (expanded++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matches.putIfAbsent(term, PREFIX);
+            }
+            if (!isWord(queryTerm) || queryTerm.length() < 3) {
+                return matches;
+            }
+
+            List<String> queryTrigrams = trigrams(queryTerm);
+            for (String term : termsWithAll(queryTrigrams)) {
+                if (term.contains(queryTerm)) {
+                    matches.putIfAbsent(term, INFIX);
+                }
+            }
+
+            if (queryTerm.length() >= 4) {
+                int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+                // Candidates: terms sharing a trigram, plus terms with the same first letter for typos
+                // that break every trigram (e.g. "jhon"); only lengths within maxEdits can be close enough
+                Set<String> candidates = new HashSet<>();
+                for (String trigram : queryTrigrams) {
+                    for (String term : trigramTerms.getOrDefault(trigram, Set.of())) {
+                        if (Math.abs(term.length() - queryTerm.length()) <= maxEdits) {
+                            candidates.add(term);
+                        }
+                    }
+                }
+                for (int length = queryTerm.length() - maxEdits; length <= queryTerm.length() + maxEdits; length++) {
+                    candidates.addAll(typoBuckets.getOrDefault(typoBucket(queryTerm.charAt(0), length), Set.of()));
+                }
+                for (String candidate : candidates) {
+                    if (!matches.containsKey(candidate)) {
+                        int distance = editDistance(queryTerm, candidate, maxEdits);
+                        if (distance <= maxEdits) {
+                            matches.put(candidate, distance == 1 ? ONE_EDIT : TWO_EDITS);
+                        }
+                    }
+                }
+            }
+            return matches;
+        }
+
+        private static int typoBucket(char first, int length) {
+            return first << 8 | Math.min(length, 255);
+        }
+
+        private Set<String> termsWithAll(List<String> trigrams) {
+            List<Set<String>> sets = new ArrayList<>(trigrams.size());
+            for (String trigram : trigrams) {
+                Set<String> terms = trigramTerms.get(trigram);
+                if (terms == null) {
+                    return Set.of();
+                }
+                sets.add(terms);
+            }
+            sets.sort(Comparator.comparingInt(Set::size));
+            Set<String> result = new HashSet<>(sets.get(0));
+            for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+                result.retainAll(sets.get(i));
+            }
+            return result.isEmpty() ? Collections.emptySet() : result;
+        }
+    }
+}
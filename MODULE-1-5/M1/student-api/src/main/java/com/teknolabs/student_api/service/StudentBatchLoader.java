@@ -0,0 +1,138 @@
+package com.teknolabs.student_api.service;
+
+import com.teknolabs.student_api.model.Student;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Merges single-student lookups arriving within a short window into one multi-id lookup
+ * ({@link StudentService#getStudentsByIds}): one cache round trip and at most one query per batch
+ * instead of one of each per lookup. A batch is sent once the window has passed since its first
+ * lookup, or as soon as it is full; the same id asked twice in a batch is looked up once.
+ * <p>
+ * When disabled (the default), lookups go straight to {@link StudentService#getStudentById}.
+ */
+@Component
+public class StudentBatchLoader {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${student.batching.enabled:false}")
+    private boolean enabled;
+
+    @Value("${student.batching.window:2ms}")
+    private Duration window;
+
+    @Value("${student.batching.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${student.batching.threads:4}")
+    private int threads;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Long, CompletableFuture<Optional<Student>>> pending;
+    private ScheduledExecutorService scheduler;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger count = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "student-batch-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchSizes = DistributionSummary.builder("student.batch-loader.batch.size")
+            .description("Distinct students per batched lookup")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * The student with this id, once the batch it joined has been looked up.
+     */
+    public CompletableFuture<Optional<Student>> load(Long id) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(studentService.getStudentById(id));
+        }
+        CompletableFuture<Optional<Student>> result;
+        Map<Long, CompletableFuture<Optional<Student>>> full = null;
+        lock.lock();
+        try {
+            if (pending == null) {
+                Map<Long, CompletableFuture<Optional<Student>>> batch = new LinkedHashMap<>();
+                pending = batch;
+                scheduler.schedule(() -> dispatchIfPending(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            result = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            Map<Long, CompletableFuture<Optional<Student>>> batch = full;
+            scheduler.execute(() -> dispatch(batch));
+        }
+        return result;
+    }
+
+    // Sends the batch when its window ends, unless it was sent already because it filled up
+    private void dispatchIfPending(Map<Long, CompletableFuture<Optional<Student>>> batch) {
+        lock.lock();
+        try {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<Optional<Student>>> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<Student> students = studentService.getStudentsByIds(batch.keySet());
+            Map<Long, Student> byId = students.stream().collect(Collectors.toMap(Student::getId, Function.identity()));
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(byId.get(id))));
+        } catch (RuntimeException | Error ex) {
+            batch.values().forEach(future -> future.completeExceptionally(ex));
+        }
+    }
+}
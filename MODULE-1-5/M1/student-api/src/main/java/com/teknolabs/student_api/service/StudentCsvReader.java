@@ -0,0 +1,84 @@
+package com.teknolabs.student_api.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma separated, fields optionally quoted with doubled quotes
+ * as escapes, quoted fields may span lines. Records are read one at a time.
+ */
+class StudentCsvReader {
+
+    private final Reader reader;
+    private int pending = -2;
+
+    StudentCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the input. Blank lines are skipped.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                if (fields.isEmpty() && field.isEmpty()) {
+                    any = false;
+                    continue;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any && fields.isEmpty() && field.isEmpty()) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
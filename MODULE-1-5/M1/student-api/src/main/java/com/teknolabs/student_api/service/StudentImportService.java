@@ -0,0 +1,301 @@
+package com.teknolabs.student_api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teknolabs.student_api.cache.StudentQueryCache;
+import com.teknolabs.student_api.event.StudentEventLog;
+import com.teknolabs.student_api.exception.BadRequestException;
+import com.teknolabs.student_api.model.ImportResult;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.repository.StudentRepository;
+import com.teknolabs.student_api.search.StudentSearch;
+import com.teknolabs.student_api.stats.StudentAggregates;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk creation of students from CSV or JSON uploads. Records are parsed and validated one at a
+ * time and inserted in JDBC batches, each batch in its own transaction. Invalid records and email
+ * conflicts are reported per row and never abort the rest of the import.
+ */
+@Slf4j
+@Service
+public class StudentImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "dateofbirth", "phonenumber", "status");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentQueryCache studentQueryCache;
+
+    @Autowired
+    private StudentSearch studentSearch;
+
+    @Autowired
+    private StudentEventLog studentEventLog;
+
+    @Autowired
+    private StudentAggregates studentAggregates;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${student.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${student.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public StudentImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportResult importCsv(InputStream in) throws IOException {
+        StudentCsvReader reader = new StudentCsvReader(
+            new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new BadRequestException("CSV upload is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("email")) {
+            throw new BadRequestException("CSV header must contain at least the name and email columns, "
+                + "optionally followed by " + CSV_COLUMNS.subList(2, CSV_COLUMNS.size()));
+        }
+
+        ImportSession session = new ImportSession();
+        List<String> record;
+        long row = 0;
+        while ((record = reader.next()) != null) {
+            row++;
+            List<String> errors = new ArrayList<>();
+            Student student = fromCsv(record, columns, errors);
+            if (errors.isEmpty()) {
+                session.accept(row, student);
+            } else {
+                session.reject(row, errors);
+            }
+        }
+        return session.finish();
+    }
+
+    public ImportResult importJson(InputStream in) throws IOException {
+        ImportSession session = new ImportSession();
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("JSON upload must be an array of students");
+            }
+            long row = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                row++;
+                // Reading the raw tree first keeps the parser aligned when a record does not map
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    session.accept(row, objectMapper.treeToValue(node, Student.class));
+                } catch (JsonProcessingException ex) {
+                    session.reject(row, List.of("Invalid record: " + ex.getOriginalMessage()));
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            throw new BadRequestException("Malformed JSON upload: " + ex.getOriginalMessage());
+        }
+        return session.finish();
+    }
+
+    private Student fromCsv(List<String> record, Map<String, Integer> columns, List<String> errors) {
+        Student student = new Student();
+        student.setName(column(record, columns, "name"));
+        student.setEmail(column(record, columns, "email"));
+        student.setPhoneNumber(column(record, columns, "phonenumber"));
+
+        String dateOfBirth = column(record, columns, "dateofbirth");
+        if (dateOfBirth != null) {
+            try {
+                student.setDateOfBirth(LocalDate.parse(dateOfBirth));
+            } catch (DateTimeParseException ex) {
+                errors.add("Date of birth must be an ISO date (yyyy-MM-dd): " + dateOfBirth);
+            }
+        }
+        String status = column(record, columns, "status");
+        if (status != null) {
+            try {
+                student.setStatus(StudentStatus.valueOf(status.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                errors.add("Unknown status: " + status);
+            }
+        }
+        return student;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * State of one upload: the pending batch, the emails seen so far and the result being built.
+     */
+    private class ImportSession {
+
+        private final ImportResult result = new ImportResult();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<Student> batch = new ArrayList<>();
+        private final List<Long> batchRows = new ArrayList<>();
+
+        void accept(long row, Student student) {
+            result.setReceived(result.getReceived() + 1);
+            // Uploads create students; ids and audit columns are never taken from the input
+            student.setId(null);
+            student.setVersion(null);
+            student.setCreatedDate(null);
+            student.setCreatedBy(null);
+            if (student.getStatus() == null) {
+                student.setStatus(StudentStatus.ACTIVE);
+            }
+
+            Set<ConstraintViolation<Student>> violations = validator.validate(student);
+            if (!violations.isEmpty()) {
+                fail(row, violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+                return;
+            }
+            if (!seenEmails.add(student.getEmail())) {
+                fail(row, List.of("Email appears more than once in the upload: " + student.getEmail()));
+                return;
+            }
+
+            batch.add(student);
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, List<String> messages) {
+            result.setReceived(result.getReceived() + 1);
+            fail(row, messages);
+        }
+
+        ImportResult finish() {
+            flush();
+            if (result.getImported() > 0) {
+                studentQueryCache.invalidateQueries();
+            }
+            return result;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Set<String> taken = new HashSet<>(studentRepository.findExistingEmails(
+                batch.stream().map(Student::getEmail).collect(Collectors.toList())));
+
+            List<Student> students = new ArrayList<>(batch.size());
+            List<Long> rows = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Student student = batch.get(i);
+                if (taken.contains(student.getEmail())) {
+                    fail(batchRows.get(i), List.of("Email already exists: " + student.getEmail()));
+                } else {
+                    students.add(student);
+                    rows.add(batchRows.get(i));
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    insert(students);
+                    // Registered within the transaction, so they follow its commit
+                    studentSearch.indexStudents(students);
+                    studentEventLog.created(students);
+                    studentAggregates.created(students);
+                });
+                result.setImported(result.getImported() + students.size());
+            } catch (DataAccessException ex) {
+                // Typically an email inserted concurrently by someone else: find the offending rows
+                log.debug("Batch insert failed, retrying {} students one by one", students.size(), ex);
+                insertOneByOne(students, rows);
+            }
+        }
+
+        private void insertOneByOne(List<Student> students, List<Long> rows) {
+            for (int i = 0; i < students.size(); i++) {
+                Student student = students.get(i);
+                student.setId(null);
+                student.setVersion(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        insert(List.of(student));
+                        studentSearch.indexStudent(student);
+                        studentEventLog.created(student);
+                        studentAggregates.created(student);
+                    });
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException ex) {
+                    fail(rows.get(i), List.of("Could not be saved: " + ex.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+
+        private void insert(List<Student> students) {
+            studentRepository.saveAll(students);
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        private void fail(long row, List<String> messages) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new ImportResult.RowError(row, messages));
+            }
+        }
+    }
+}
@@ -1,78 +1,345 @@
 package com.teknolabs.student_api.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teknolabs.student_api.cache.StudentQueryCache;
+import com.teknolabs.student_api.datasource.PrimaryReads;
+import com.teknolabs.student_api.event.StudentEventLog;
+import com.teknolabs.student_api.exception.PreconditionFailedException;
 import com.teknolabs.student_api.exception.ResourceNotFoundException;
+import com.teknolabs.student_api.model.CursorPage;
+import com.teknolabs.student_api.model.ExportFormat;
+import com.teknolabs.student_api.model.StatusTransitionResult;
 import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentCursor;
+import com.teknolabs.student_api.model.StudentFieldSet;
+import com.teknolabs.student_api.model.StudentStats;
+import com.teknolabs.student_api.model.StudentIdStatus;
 import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.model.StudentSummary;
 import com.teknolabs.student_api.repository.StudentRepository;
+import com.teknolabs.student_api.search.StudentSearch;
+import com.teknolabs.student_api.stats.StudentAggregates;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class StudentService {
 
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    // Reads of the current status before a single-student status update gives up with a conflict
+    private static final int STATUS_UPDATE_ATTEMPTS = 3;
+
     @Autowired
     private StudentRepository studentRepository;
 
-    @Cacheable(value = "students")
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorProvider;
+
+    @Value("${student.bulk.batch-size:1000}")
+    private int bulkBatchSize;
+
+    @Autowired
+    private StudentQueryCache studentQueryCache;
+
+    @Autowired
+    private StudentSearch studentSearch;
+
+    @Autowired
+    private StudentEventLog studentEventLog;
+
+    @Autowired
+    private StudentAggregates studentAggregates;
+
     @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
-        return studentRepository.findAll();
+        return studentQueryCache.list(StudentQueryCache.ALL, "all", studentRepository::findAll);
     }
 
     @Transactional(readOnly = true)
     public Page<Student> getAllStudentsPaged(Pageable pageable) {
-        return studentRepository.findAll(pageable);
+        return studentQueryCache.page(StudentQueryCache.PAGES, "all", pageable,
+            () -> studentRepository.findAll(pageable));
+    }
+
+    /**
+     * Id, name, email and status of a page of students, without loading entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<StudentSummary> getStudentSummaries(Pageable pageable) {
+        return studentRepository.findSummaries(pageable);
+    }
+
+    /**
+     * Same as {@link #getStudentSummaries}, but the total comes from the maintained counts when they
+     * are ready, so a page costs one bounded query instead of a page query and a full count.
+     */
+    @Transactional(readOnly = true)
+    public Page<StudentSummary> getStudentSummaryPage(Pageable pageable) {
+        OptionalLong total = studentAggregates.count();
+        if (total.isEmpty()) {
+            return studentRepository.findSummaries(pageable);
+        }
+        Slice<StudentSummary> slice = studentRepository.findSummarySlice(pageable);
+        return new PageImpl<>(slice.getContent(), pageable, total.getAsLong());
+    }
+
+    /**
+     * Every student, limited to the requested fields. Only those columns are selected and rows are
+     * read as tuples, so nothing is hydrated into entities or tracked by the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllStudentFields(StudentFieldSet fields) {
+        List<String> names = fields.getNames();
+        // Names come from StudentFieldSet.FIELDS only, so building the select list is safe
+        String select = names.stream().map(name -> "s." + name).collect(Collectors.joining(", "));
+        try (Stream<Tuple> rows = entityManager.createQuery("SELECT " + select + " FROM Student s ORDER BY s.id", Tuple.class)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, "MANUAL")
+                .getResultStream()) {
+            return rows.map(row -> {
+                Map<String, Object> student = new LinkedHashMap<>();
+                for (int i = 0; i < names.size(); i++) {
+                    student.put(names.get(i), row.get(i));
+                }
+                return student;
+            }).toList();
+        }
     }
 
-    @Cacheable(value = "students", key = "#id")
+    /**
+     * Keyset pagination: fetches the rows following the cursor, one extra row telling whether
+     * there is a next page. Cost is the same for the first and the ten-thousandth page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Student> getStudentsAfter(StudentCursor cursor, StudentStatus status, int size,
+                                                boolean includeTotal) {
+        Limit limit = Limit.of(size + 1);
+        List<Student> rows;
+        if (cursor.getSortKey() == StudentCursor.SortKey.NAME) {
+            rows = status == null
+                ? studentRepository.findNextByName(cursor.getName(), cursor.getId(), limit)
+                : studentRepository.findNextByStatusAndName(status, cursor.getName(), cursor.getId(), limit);
+        } else {
+            rows = status == null
+                ? studentRepository.findNextById(cursor.getId(), limit)
+                : studentRepository.findNextByStatusAndId(status, cursor.getId(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<Student> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+            ? StudentCursor.after(content.get(content.size() - 1), cursor.getSortKey()).encode()
+            : null;
+        Long total = null;
+        if (includeTotal) {
+            total = status == null
+                ? studentAggregates.count().orElseGet(studentRepository::count)
+                : studentAggregates.countByStatus(status).orElseGet(() -> studentRepository.countByStatus(status));
+        }
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor, total);
+    }
+
+    /**
+     * Writes the matching students to the output one by one. Rows are streamed from the database
+     * and detached once written, so memory use does not depend on how many students are exported.
+     */
+    @Transactional(readOnly = true)
+    public long exportStudents(StudentStatus status, LocalDate bornAfter, LocalDate bornBefore,
+                               ExportFormat format, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Student> students = studentRepository.streamForExport(status, bornAfter, bornBefore);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == ExportFormat.JSON) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            }
+
+            Iterator<Student> iterator = students.iterator();
+            while (iterator.hasNext()) {
+                Student student = iterator.next();
+                generator.writeObject(student);
+                entityManager.detach(student);
+                if (++count % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+
+            if (format == ExportFormat.JSON) {
+                generator.writeEndArray();
+            } else if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    @Cacheable(value = StudentQueryCache.ENTITIES, key = "#id", sync = true)
     @Transactional(readOnly = true)
     public Optional<Student> getStudentById(Long id) {
         return studentRepository.findById(id);
     }
 
-    @CachePut(value = "students", key = "#result.id")
-    @CacheEvict(value = "students", key = "'allStudents'")
+    /**
+     * Students with the given ids, in the order asked; ids without a student are left out. Cached
+     * students are read in one round trip, the others with a single {@code IN} query from the
+     * primary, and those are then cached in one round trip too.
+     */
+    public List<Student> getStudentsByIds(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, Student> found = studentQueryCache.cachedStudents(distinct);
+        List<Long> missing = distinct.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            List<Student> loaded = PrimaryReads.get(() -> studentRepository.findAllById(missing));
+            loaded.forEach(student -> found.put(student.getId(), student));
+            studentQueryCache.cacheLoadedStudents(loaded);
+        }
+        return distinct.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @CachePut(value = StudentQueryCache.ENTITIES, key = "#result.id")
     @Transactional
     public Student saveStudent(Student student) {
-        return studentRepository.save(student);
+        // Same test as Spring Data's: no version yet means the student is inserted
+        boolean created = student.getVersion() == null;
+        // Loading the current row first costs nothing extra: the merge in save() reuses it
+        Optional<Student> previous = created ? Optional.empty() : studentRepository.findById(student.getId());
+        StudentStatus previousStatus = previous.map(Student::getStatus).orElse(null);
+        LocalDate previousDateOfBirth = previous.map(Student::getDateOfBirth).orElse(null);
+        Student saved = studentRepository.save(student);
+        studentQueryCache.invalidateQueries();
+        studentSearch.indexStudent(saved);
+        if (created) {
+            studentEventLog.created(saved);
+            studentAggregates.created(saved);
+        } else {
+            studentEventLog.updated(saved);
+            if (previous.isPresent()) {
+                studentAggregates.updated(previousStatus, previousDateOfBirth, saved);
+            } else {
+                studentAggregates.created(saved);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Applies the editable fields of {@code changes} to an existing student. When
+     * {@code expectedVersions} is given (from If-Match), the student's current version must be
+     * one of them; a change committed by someone else in the meantime fails on the version check.
+     */
+    @CachePut(value = StudentQueryCache.ENTITIES, key = "#id")
+    @Transactional
+    public Student updateStudent(Long id, Student changes, Collection<Long> expectedVersions) {
+        Student student = studentRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+        if (expectedVersions != null && !expectedVersions.contains(student.getVersion())) {
+            throw new PreconditionFailedException("Student " + id + " is at version " + student.getVersion()
+                + ", which does not match If-Match");
+        }
+        StudentStatus previousStatus = student.getStatus();
+        LocalDate previousDateOfBirth = student.getDateOfBirth();
+        student.setName(changes.getName());
+        student.setEmail(changes.getEmail());
+        student.setDateOfBirth(changes.getDateOfBirth());
+        student.setPhoneNumber(changes.getPhoneNumber());
+        student.setStatus(changes.getStatus());
+        // Flushed now so the returned student carries its new version and modification date
+        Student saved = studentRepository.saveAndFlush(student);
+        studentQueryCache.invalidateQueries();
+        studentSearch.indexStudent(saved);
+        studentEventLog.updated(saved);
+        studentAggregates.updated(previousStatus, previousDateOfBirth, saved);
+        return saved;
+    }
+
+    /**
+     * Validator of the student list: changes whenever any student is written.
+     */
+    public String getStudentListVersion() {
+        return studentQueryCache.generation();
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = "students", key = "#id"),
-        @CacheEvict(value = "students", key = "'allStudents'")
-    })
+    @CacheEvict(value = StudentQueryCache.ENTITIES, key = "#id")
     @Transactional
     public void deleteStudent(Long id) {
-        studentRepository.deleteById(id);
+        studentRepository.findById(id).ifPresent(student -> {
+            studentRepository.delete(student);
+            studentQueryCache.invalidateQueries();
+            studentSearch.removeStudent(id);
+            studentEventLog.deleted(id);
+            studentAggregates.deleted(student);
+        });
     }
 
-    @Cacheable(value = "students", key = "'search:' + #keyword")
+    /**
+     * Served by the in-memory search index; the LIKE query is only used while the index is
+     * being built or for sort orders the index does not support.
+     */
     @Transactional(readOnly = true)
     public Page<Student> searchStudents(String keyword, Pageable pageable) {
-        return studentRepository.searchStudents(keyword, pageable);
+        return studentQueryCache.page(StudentQueryCache.SEARCH, keyword, pageable,
+            () -> studentSearch.search(keyword, pageable)
+                .orElseGet(() -> studentRepository.searchStudents(keyword, pageable)));
     }
 
-    @Cacheable(value = "students", key = "'name:' + #name")
     @Transactional(readOnly = true)
     public Page<Student> findByNameContaining(String name, Pageable pageable) {
-        return studentRepository.findByNameContainingIgnoreCase(name, pageable);
+        return studentQueryCache.page(StudentQueryCache.BY_NAME, name, pageable,
+            () -> studentRepository.findByNameContainingIgnoreCase(name, pageable));
     }
 
-    @Cacheable(value = "students", key = "'status:' + #status")
     @Transactional(readOnly = true)
     public List<Student> findByStatus(StudentStatus status) {
-        return studentRepository.findByStatus(status);
+        return studentQueryCache.list(StudentQueryCache.BY_STATUS, status,
+            () -> studentRepository.findByStatus(status));
     }
 
     @Transactional(readOnly = true)
@@ -80,14 +347,139 @@ public class StudentService {
         return studentRepository.findByDateOfBirthBetween(startDate, endDate);
     }
 
+    /**
+     * Answered from the incrementally kept counts; counted in the database only until those are ready.
+     */
     @Transactional(readOnly = true)
     public long countByStatus(StudentStatus status) {
-        return studentRepository.countByStatus(status);
+        return studentAggregates.countByStatus(status).orElseGet(() -> studentRepository.countByStatus(status));
     }
 
+    public StudentStats getStats() {
+        return studentAggregates.getStats();
+    }
+
+    /**
+     * Sets the status of one student without loading it. The update only applies from the status
+     * read just before, so the counts move the student from the status it really left; when another
+     * writer changed it in between, the status is read again.
+     */
+    @CacheEvict(value = StudentQueryCache.ENTITIES, key = "#id")
     @Transactional
     public boolean updateStudentStatus(Long id, StudentStatus status) {
-        return studentRepository.updateStudentStatus(id, status) > 0;
+        String modifiedBy = auditorProvider.getCurrentAuditor().orElse(null);
+        for (int attempt = 0; attempt < STATUS_UPDATE_ATTEMPTS; attempt++) {
+            Optional<StudentStatus> previous = studentRepository.findStatusById(id);
+            if (previous.isEmpty()) {
+                return false;
+            }
+            if (studentRepository.updateStudentStatus(id, previous.get(), status, LocalDateTime.now(), modifiedBy) > 0) {
+                studentQueryCache.invalidateQueries();
+                if (previous.get() != status) {
+                    studentEventLog.statusChanged(List.of(id), status);
+                    studentAggregates.statusChanged(Map.of(previous.get(), 1L), status);
+                }
+                return true;
+            }
+        }
+        throw new OptimisticLockingFailureException("Status of student " + id + " kept changing during the update");
+    }
+
+    /**
+     * Moves the given students to a new status with one UPDATE per chunk of ids, without loading
+     * them. Each chunk commits on its own, so a large transition does not hold locks for its whole run.
+     */
+    public StatusTransitionResult updateStatusForIds(List<Long> ids, StudentStatus status) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        String modifiedBy = auditorProvider.getCurrentAuditor().orElse(null);
+        long updated = 0;
+        int batches = 0;
+        for (int start = 0; start < distinctIds.size(); start += bulkBatchSize) {
+            List<Long> chunk = distinctIds.subList(start, Math.min(start + bulkBatchSize, distinctIds.size()));
+            Integer moved = transactionTemplate.execute(tx -> {
+                // Locked until commit, so the statuses read here are the ones the update changes
+                Map<StudentStatus, Long> previous = new EnumMap<>(StudentStatus.class);
+                List<Long> moving = new ArrayList<>();
+                for (StudentIdStatus student : studentRepository.lockStatusesByIds(chunk)) {
+                    if (student.status() != status) {
+                        previous.merge(student.status(), 1L, Long::sum);
+                        moving.add(student.id());
+                    }
+                }
+                if (moving.isEmpty()) {
+                    return 0;
+                }
+                int rows = studentRepository.updateStatusByIds(moving, status, LocalDateTime.now(), modifiedBy);
+                statusChunkUpdated(moving, previous, status);
+                return rows;
+            });
+            updated += statusChunkCommitted(chunk, moved);
+            batches++;
+        }
+        if (updated > 0) {
+            studentQueryCache.invalidateQueries();
+        }
+        return new StatusTransitionResult(status, updated, batches);
+    }
+
+    /**
+     * Moves every student currently in {@code currentStatus}, optionally within a birth-date range,
+     * to a new status. Matching ids are read in keyset chunks and each chunk is updated in one statement.
+     */
+    public StatusTransitionResult updateStatusWhere(StudentStatus currentStatus, LocalDate bornAfter,
+                                                    LocalDate bornBefore, StudentStatus status) {
+        if (currentStatus == status) {
+            return new StatusTransitionResult(status, 0, 0);
+        }
+        String modifiedBy = auditorProvider.getCurrentAuditor().orElse(null);
+        long updated = 0;
+        int batches = 0;
+        Long afterId = 0L;
+        List<Long> chunk;
+        do {
+            Long from = afterId;
+            List<Long> locked = new ArrayList<>();
+            Integer moved = transactionTemplate.execute(tx -> {
+                // The ids are locked until commit, and the update checks the predicate again: a student
+                // another writer moved out of currentStatus before the lock is not taken along
+                locked.addAll(studentRepository.lockIdsForTransition(currentStatus, bornAfter, bornBefore, from,
+                    Limit.of(bulkBatchSize)));
+                if (locked.isEmpty()) {
+                    return 0;
+                }
+                int rows = studentRepository.updateStatusWhere(locked, currentStatus, bornAfter, bornBefore, status,
+                    LocalDateTime.now(), modifiedBy);
+                if (rows > 0) {
+                    statusChunkUpdated(locked, Map.of(currentStatus, (long) rows), status);
+                }
+                return rows;
+            });
+            chunk = locked;
+            if (!chunk.isEmpty()) {
+                updated += statusChunkCommitted(chunk, moved);
+                batches++;
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == bulkBatchSize);
+        if (updated > 0) {
+            studentQueryCache.invalidateQueries();
+        }
+        return new StatusTransitionResult(status, updated, batches);
+    }
+
+    // Within the chunk's transaction, once exactly these students moved out of the given statuses:
+    // the event log only records real changes, not ids that were missing or already in the status
+    private void statusChunkUpdated(List<Long> ids, Map<StudentStatus, Long> previous, StudentStatus status) {
+        studentEventLog.statusChanged(ids, status);
+        studentAggregates.statusChanged(previous, status);
+    }
+
+    // After the chunk's transaction committed
+    private int statusChunkCommitted(List<Long> ids, Integer updated) {
+        if (updated != null && updated > 0) {
+            studentQueryCache.evictStudents(ids);
+        }
+        return updated == null ? 0 : updated;
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,7 @@
+package com.teknolabs.student_api.stats;
+
+/**
+ * Number of students born in one year (null for students without a date of birth), as counted by the database.
+ */
+public record CohortCount(Integer birthYear, Long count) {
+}
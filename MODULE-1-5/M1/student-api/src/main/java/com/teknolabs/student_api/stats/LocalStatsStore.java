@@ -0,0 +1,71 @@
+package com.teknolabs.student_api.stats;
+
+import com.teknolabs.student_api.model.StudentStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts kept in this JVM in {@link LongAdder}s, so concurrent writers add to separate cells
+ * instead of contending on one value. Reading sums a handful of adders.
+ */
+final class LocalStatsStore implements StatsStore {
+
+    private final Map<StudentStatus, LongAdder> statuses = new EnumMap<>(StudentStatus.class);
+    private final ConcurrentMap<String, LongAdder> cohorts = new ConcurrentHashMap<>();
+    // Writes started and finished: equal and unchanged around a read means no write was half applied
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+
+    LocalStatsStore() {
+        for (StudentStatus status : StudentStatus.values()) {
+            statuses.put(status, new LongAdder());
+        }
+    }
+
+    @Override
+    public void apply(StatsDelta delta) {
+        started.incrementAndGet();
+        try {
+            delta.statuses().forEach((status, count) -> statuses.get(status).add(count));
+            delta.cohorts().forEach((cohort, count) -> cohorts.computeIfAbsent(cohort, key -> new LongAdder()).add(count));
+        } finally {
+            finished.incrementAndGet();
+        }
+    }
+
+    @Override
+    public StatsSnapshot snapshot() {
+        Map<StudentStatus, Long> statusCounts = new EnumMap<>(StudentStatus.class);
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        Map<String, Long> cohortCounts = new TreeMap<>();
+        cohorts.forEach((cohort, count) -> {
+            long sum = count.sum();
+            if (sum != 0) {
+                cohortCounts.put(cohort, sum);
+            }
+        });
+        return new StatsSnapshot(statusCounts, cohortCounts);
+    }
+
+    @Override
+    public long version() {
+        return started.get();
+    }
+
+    @Override
+    public Optional<StatsSnapshot> snapshotIfUnchanged(long version) {
+        // Every write started before the marker has finished, and none starts until the counts are read
+        if (finished.get() != version) {
+            return Optional.empty();
+        }
+        StatsSnapshot snapshot = snapshot();
+        return started.get() == version ? Optional.of(snapshot) : Optional.empty();
+    }
+}
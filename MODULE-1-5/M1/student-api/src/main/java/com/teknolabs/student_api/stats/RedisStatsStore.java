@@ -0,0 +1,98 @@
+package com.teknolabs.student_api.stats;
+
+import com.teknolabs.student_api.model.StudentStatus;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Counts shared by every node in one Redis hash. A write's changes and the hash version are
+ * incremented in one script, so no reader sees half of a write. Reads are served from a copy of
+ * the hash refreshed periodically, which keeps them in memory.
+ */
+final class RedisStatsStore implements StatsStore {
+
+    private static final String STATUS = "status:";
+    private static final String COHORT = "cohort:";
+    private static final String VERSION = "version";
+
+    private static final RedisScript<Long> APPLY = new DefaultRedisScript<>(
+        "for i = 1, #ARGV, 2 do redis.call('hincrby', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+            + "return redis.call('hincrby', KEYS[1], '" + VERSION + "', 1)",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String key;
+    private volatile StatsSnapshot cached = StatsSnapshot.EMPTY;
+
+    RedisStatsStore(StringRedisTemplate redisTemplate, String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    @Override
+    public void apply(StatsDelta delta) {
+        List<String> increments = new ArrayList<>();
+        delta.statuses().forEach((status, count) -> {
+            increments.add(STATUS + status.name());
+            increments.add(Long.toString(count));
+        });
+        delta.cohorts().forEach((cohort, count) -> {
+            increments.add(COHORT + cohort);
+            increments.add(Long.toString(count));
+        });
+        redisTemplate.execute(APPLY, List.of(key), increments.toArray());
+    }
+
+    @Override
+    public StatsSnapshot snapshot() {
+        return cached;
+    }
+
+    @Override
+    public long version() {
+        Object version = redisTemplate.opsForHash().get(key, VERSION);
+        return version == null ? 0 : Long.parseLong(version.toString());
+    }
+
+    @Override
+    public Optional<StatsSnapshot> snapshotIfUnchanged(long version) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(key);
+        cached = parse(hash);
+        Object current = hash.get(VERSION);
+        return (current == null ? 0 : Long.parseLong(current.toString())) == version
+            ? Optional.of(cached)
+            : Optional.empty();
+    }
+
+    @Override
+    public void refresh() {
+        cached = parse(redisTemplate.opsForHash().entries(key));
+    }
+
+    private static StatsSnapshot parse(Map<Object, Object> hash) {
+        Map<StudentStatus, Long> statuses = new EnumMap<>(StudentStatus.class);
+        Map<String, Long> cohorts = new TreeMap<>();
+        hash.forEach((field, value) -> {
+            String name = field.toString();
+            long count = Long.parseLong(value.toString());
+            if (name.startsWith(STATUS)) {
+                try {
+                    statuses.put(StudentStatus.valueOf(name.substring(STATUS.length())), count);
+                } catch (IllegalArgumentException ex) {
+                    // Written by a node that knows a status this one does not
+                }
+            } else if (name.startsWith(COHORT) && count != 0) {
+                cohorts.put(name.substring(COHORT.length()), count);
+            }
+        });
+        return new StatsSnapshot(statuses, cohorts);
+    }
+}
@@ -0,0 +1,79 @@
+package com.teknolabs.student_api.stats;
+
+import com.teknolabs.student_api.model.StudentStatus;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Changes a write makes to the per-status and per-birth-year counts. Entries that cancel out are
+ * dropped, so an update that keeps status and birth year leaves the delta empty.
+ */
+final class StatsDelta {
+
+    static final String UNKNOWN_BIRTH_YEAR = "unknown";
+
+    private final Map<StudentStatus, Long> statuses = new EnumMap<>(StudentStatus.class);
+    private final Map<String, Long> cohorts = new HashMap<>();
+
+    StatsDelta add(StudentStatus status, LocalDate dateOfBirth, long count) {
+        return addStatus(status, count).addCohort(cohort(dateOfBirth), count);
+    }
+
+    StatsDelta addStatus(StudentStatus status, long count) {
+        if (status != null && count != 0) {
+            statuses.merge(status, count, StatsDelta::sum);
+        }
+        return this;
+    }
+
+    StatsDelta addCohort(String cohort, long count) {
+        if (count != 0) {
+            cohorts.merge(cohort, count, StatsDelta::sum);
+        }
+        return this;
+    }
+
+    Map<StudentStatus, Long> statuses() {
+        return statuses;
+    }
+
+    Map<String, Long> cohorts() {
+        return cohorts;
+    }
+
+    boolean isEmpty() {
+        return statuses.isEmpty() && cohorts.isEmpty();
+    }
+
+    /**
+     * Total of the absolute changes, e.g. how far counts had drifted from the database.
+     */
+    long magnitude() {
+        long magnitude = 0;
+        for (long count : statuses.values()) {
+            magnitude += Math.abs(count);
+        }
+        for (long count : cohorts.values()) {
+            magnitude += Math.abs(count);
+        }
+        return magnitude;
+    }
+
+    static String cohort(LocalDate dateOfBirth) {
+        return dateOfBirth == null ? UNKNOWN_BIRTH_YEAR : Integer.toString(dateOfBirth.getYear());
+    }
+
+    private static Long sum(Long a, Long b) {
+        long sum = a + b;
+        // Returning null makes Map.merge remove the entry
+        return sum == 0 ? null : sum;
+    }
+
+    @Override
+    public String toString() {
+        return "statuses=" + statuses + ", birth years=" + cohorts;
+    }
+}
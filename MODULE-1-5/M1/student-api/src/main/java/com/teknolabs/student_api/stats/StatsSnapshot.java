@@ -0,0 +1,35 @@
+package com.teknolabs.student_api.stats;
+
+import com.teknolabs.student_api.model.StudentStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts per status and per birth year at one point in time. Zero counts may be absent.
+ */
+record StatsSnapshot(Map<StudentStatus, Long> statuses, Map<String, Long> cohorts) {
+
+    static final StatsSnapshot EMPTY = new StatsSnapshot(new EnumMap<>(StudentStatus.class), new TreeMap<>());
+
+    long count(StudentStatus status) {
+        return statuses.getOrDefault(status, 0L);
+    }
+
+    long total() {
+        return statuses.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * What has to be added to {@code counted} to make it equal to this snapshot.
+     */
+    StatsDelta minus(StatsSnapshot counted) {
+        StatsDelta delta = new StatsDelta();
+        statuses.forEach(delta::addStatus);
+        counted.statuses.forEach((status, count) -> delta.addStatus(status, -count));
+        cohorts.forEach(delta::addCohort);
+        counted.cohorts.forEach((cohort, count) -> delta.addCohort(cohort, -count));
+        return delta;
+    }
+}
@@ -0,0 +1,37 @@
+package com.teknolabs.student_api.stats;
+
+import java.util.Optional;
+
+/**
+ * Where the per-status and per-birth-year counts live: in this JVM, or in Redis when several
+ * nodes write students and must share one set of counts.
+ */
+interface StatsStore {
+
+    /**
+     * Adds the changes of one committed write.
+     */
+    void apply(StatsDelta delta);
+
+    /**
+     * Counts to answer reads from. Shared counts may lag writes of other nodes by the refresh interval.
+     */
+    StatsSnapshot snapshot();
+
+    /**
+     * Marker to read before counting in the database; see {@link #snapshotIfUnchanged}.
+     */
+    long version();
+
+    /**
+     * Current counts, or empty if a write was applied (or was being applied) since {@code version}
+     * was read. Only counts that moved together with the database can be compared with it.
+     */
+    Optional<StatsSnapshot> snapshotIfUnchanged(long version);
+
+    /**
+     * Re-reads shared counts into the snapshot served by {@link #snapshot()}.
+     */
+    default void refresh() {
+    }
+}
@@ -0,0 +1,9 @@
+package com.teknolabs.student_api.stats;
+
+import com.teknolabs.student_api.model.StudentStatus;
+
+/**
+ * Number of students in one status, as counted by the database.
+ */
+public record StatusCount(StudentStatus status, Long count) {
+}
@@ -0,0 +1,299 @@
+package com.teknolabs.student_api.stats;
+
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentStats;
+import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of students per status and per birth year, kept up to date by the write paths instead of
+ * counted on every read. Each committed write adds its changes to the counts; a periodic
+ * reconciliation recounts in the database and corrects any drift, e.g. from writes that bypassed
+ * the service or, with local counts, from other nodes. Until the first reconciliation succeeds,
+ * and after shared counts could not be updated, reads fall back to counting in the database.
+ * <p>
+ * A reconciliation only compares when no write of this node was between its commit and its counts
+ * being applied, before or during the recount. With shared counts, a write of another node in that
+ * state can still be counted twice or not at all; the next reconciliation corrects it.
+ */
+@Slf4j
+@Component
+public class StudentAggregates {
+
+    // Attempts of a reconciliation before giving up until the next interval; one is skipped when writes race it
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${student.stats.enabled:true}")
+    private boolean enabled;
+
+    @Value("${student.stats.store:local}")
+    private String storeType;
+
+    @Value("${student.stats.reconcile-interval:5m}")
+    private Duration reconcileInterval;
+
+    @Value("${student.stats.redis.key:student-api:stats}")
+    private String redisKey;
+
+    @Value("${student.stats.redis.refresh-interval:1s}")
+    private Duration refreshInterval;
+
+    private StatsStore store;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean ready;
+    private volatile LocalDateTime reconciledAt;
+
+    private Counter drift;
+    private Counter skipped;
+
+    // Writes of this node registered in their transaction, and those whose transaction has completed
+    // (counts applied on commit); while the two differ, a recount cannot be compared with the counts
+    private final AtomicLong writesStarted = new AtomicLong();
+    private final AtomicLong writesCompleted = new AtomicLong();
+
+    public StudentAggregates(PlatformTransactionManager transactionManager) {
+        // Not read-only: reconciliation must count on the primary, a lagging replica would make the counts drift
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        store = "redis".equalsIgnoreCase(storeType)
+            ? new RedisStatsStore(redisTemplate.getObject(), redisKey)
+            : new LocalStatsStore();
+        drift = Counter.builder("student.stats.drift")
+            .description("Counts corrected by reconciliation with the database (sum of absolute differences)")
+            .register(meterRegistry);
+        skipped = Counter.builder("student.stats.reconciliations.skipped")
+            .description("Reconciliations abandoned because writes were in progress while they counted")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (store instanceof RedisStatsStore) {
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshInterval.toMillis(),
+                refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void created(Student student) {
+        apply(new StatsDelta().add(student.getStatus(), student.getDateOfBirth(), 1));
+    }
+
+    public void created(Collection<Student> students) {
+        StatsDelta delta = new StatsDelta();
+        students.forEach(student -> delta.add(student.getStatus(), student.getDateOfBirth(), 1));
+        apply(delta);
+    }
+
+    /**
+     * Moves a student from its previous status and birth year to its saved ones.
+     */
+    public void updated(StudentStatus previousStatus, LocalDate previousDateOfBirth, Student saved) {
+        apply(new StatsDelta()
+            .add(previousStatus, previousDateOfBirth, -1)
+            .add(saved.getStatus(), saved.getDateOfBirth(), 1));
+    }
+
+    public void deleted(Student student) {
+        apply(new StatsDelta().add(student.getStatus(), student.getDateOfBirth(), -1));
+    }
+
+    /**
+     * Moves students that were counted per previous status to a new one; birth years do not change.
+     */
+    public void statusChanged(Map<StudentStatus, Long> previousStatuses, StudentStatus status) {
+        StatsDelta delta = new StatsDelta();
+        previousStatuses.forEach((previous, count) -> delta.addStatus(previous, -count).addStatus(status, count));
+        apply(delta);
+    }
+
+    /**
+     * Number of students in a status, or empty when the counts cannot be trusted yet.
+     */
+    public OptionalLong countByStatus(StudentStatus status) {
+        return ready ? OptionalLong.of(store.snapshot().count(status)) : OptionalLong.empty();
+    }
+
+    public OptionalLong count() {
+        return ready ? OptionalLong.of(store.snapshot().total()) : OptionalLong.empty();
+    }
+
+    /**
+     * All counts, from memory once reconciled, otherwise counted in the database.
+     */
+    public StudentStats getStats() {
+        if (ready) {
+            return toStats(store.snapshot(), StudentStats.Source.COUNTERS);
+        }
+        return toStats(countInDatabase(), StudentStats.Source.DATABASE);
+    }
+
+    /**
+     * Recounts in the database and corrects the counts to match. Returns false when writes were in
+     * progress or applied while counting, as the two could then not be compared; the next attempt will do.
+     */
+    public boolean reconcile() {
+        long started = writesStarted.get();
+        if (writesCompleted.get() != started) {
+            skipped.increment();
+            return false;
+        }
+        long version = store.version();
+        StatsSnapshot database = countInDatabase();
+        Optional<StatsSnapshot> counted = store.snapshotIfUnchanged(version);
+        if (counted.isEmpty() || writesStarted.get() != started) {
+            skipped.increment();
+            return false;
+        }
+        StatsDelta correction = database.minus(counted.get());
+        if (!correction.isEmpty()) {
+            store.apply(correction);
+            store.refresh();
+            drift.increment(correction.magnitude());
+            if (ready) {
+                log.warn("Student counts had drifted from the database, corrected by {}", correction);
+            }
+        }
+        reconciledAt = LocalDateTime.now();
+        ready = true;
+        return true;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+                if (reconcile()) {
+                    return;
+                }
+            }
+            log.debug("Student counts not reconciled: writes kept racing the recount");
+        } catch (RuntimeException ex) {
+            log.warn("Could not reconcile student counts with the database", ex);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            store.refresh();
+        } catch (RuntimeException ex) {
+            log.debug("Could not refresh student counts from Redis", ex);
+        }
+    }
+
+    private StatsSnapshot countInDatabase() {
+        return transactionTemplate.execute(status -> {
+            Map<StudentStatus, Long> statuses = new EnumMap<>(StudentStatus.class);
+            for (StatusCount count : studentRepository.countPerStatus()) {
+                statuses.put(count.status(), count.count());
+            }
+            StatsDelta cohorts = new StatsDelta();
+            for (CohortCount count : studentRepository.countPerBirthYear()) {
+                cohorts.addCohort(count.birthYear() == null
+                    ? StatsDelta.UNKNOWN_BIRTH_YEAR
+                    : count.birthYear().toString(), count.count());
+            }
+            return new StatsSnapshot(statuses, new TreeMap<>(cohorts.cohorts()));
+        });
+    }
+
+    // Counts change once the write commits, never for a write that rolls back. Callers apply from within
+    // the write's transaction, so that reconciliation knows the write is in progress
+    private void apply(StatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            writesStarted.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(delta);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    writesCompleted.incrementAndGet();
+                }
+            });
+        } else {
+            applyNow(delta);
+        }
+    }
+
+    private void applyNow(StatsDelta delta) {
+        try {
+            store.apply(delta);
+        } catch (RuntimeException ex) {
+            // The shared counts miss this write now: count in the database until they are reconciled
+            ready = false;
+            log.warn("Could not update student counts, serving them from the database until reconciled", ex);
+        }
+    }
+
+    private StudentStats toStats(StatsSnapshot snapshot, StudentStats.Source source) {
+        Map<StudentStatus, Long> byStatus = new EnumMap<>(StudentStatus.class);
+        for (StudentStatus status : StudentStatus.values()) {
+            byStatus.put(status, snapshot.count(status));
+        }
+        return new StudentStats(snapshot.total(), byStatus, snapshot.cohorts(), source, reconciledAt);
+    }
+}
@@ -0,0 +1,3 @@
+CREATE INDEX idx_student_name_id ON students(name, id);
+CREATE INDEX idx_student_status_id ON students(student_status, id);
+CREATE INDEX idx_student_status_name_id ON students(student_status, name, id);
@@ -0,0 +1,7 @@
+-- Sequence ids let Hibernate batch inserts (IDENTITY forces one round trip per row).
+-- Hibernate uses the pooled-lo optimizer, so each value starts a block of 50 ids and
+-- plain SQL inserts relying on the column default never collide with those blocks.
+CREATE SEQUENCE students_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE students_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM students);
+ALTER TABLE students ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE students ALTER COLUMN id SET DEFAULT NEXT VALUE FOR students_seq;
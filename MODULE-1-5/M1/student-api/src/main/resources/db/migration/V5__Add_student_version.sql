@@ -0,0 +1,3 @@
+-- Optimistic locking version, also used as the ETag of a student.
+-- Rows written by plain SQL start at 0 through the column default.
+ALTER TABLE students ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
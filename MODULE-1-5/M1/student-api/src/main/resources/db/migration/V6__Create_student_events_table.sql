@@ -0,0 +1,13 @@
+-- Append-only log of student changes. Rows are written in batches shortly after the change
+-- commits and are never updated; no foreign key, as deleted students keep their history.
+CREATE TABLE student_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    student_status VARCHAR(20),
+    payload CLOB,
+    actor VARCHAR(50),
+    occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_student_events_student ON student_events(student_id, id);
@@ -0,0 +1,87 @@
+package com.teknolabs.student_api.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTests {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveConcurrencyLimit limit =
+        new AdaptiveConcurrencyLimit(20, 5, 200, 1.5, 0.5, WINDOW, clock::get);
+
+    @Test
+    void lowerPrioritiesOnlyGetTheirShare() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire(0.5)).isTrue();
+        }
+        assertThat(limit.tryAcquire(0.5)).isFalse();
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+        }
+        assertThat(limit.tryAcquire(1.0)).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(20);
+
+        limit.release();
+
+        assertThat(limit.tryAcquire(0.5)).isFalse();
+        assertThat(limit.tryAcquire(1.0)).isTrue();
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenItRises() {
+        runWindows(5, 20, TimeUnit.MILLISECONDS.toNanos(10));
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(20);
+
+        runWindows(5, grown, TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(limit.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        runWindows(5, 3, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        runWindows(100, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limit.getLimit()).isEqualTo(200);
+
+        // Latency doubling every window never becomes the usual latency
+        long latency = TimeUnit.MILLISECONDS.toNanos(10);
+        for (int w = 0; w < 30; w++) {
+            latency *= 2;
+            runWindows(1, 200, latency);
+        }
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    // Each window: up to `concurrent` requests at once, ending with the given latency, at least 10 per window
+    private void runWindows(int windows, int concurrent, long latency) {
+        for (int w = 0; w < windows; w++) {
+            int samples = 0;
+            while (samples < 10) {
+                int admitted = 0;
+                while (admitted < concurrent && limit.tryAcquire(1.0)) {
+                    admitted++;
+                }
+                samples += admitted;
+                if (samples >= 10) {
+                    clock.addAndGet(WINDOW);
+                }
+                for (int i = 0; i < admitted; i++) {
+                    limit.release(latency);
+                }
+            }
+        }
+    }
+}
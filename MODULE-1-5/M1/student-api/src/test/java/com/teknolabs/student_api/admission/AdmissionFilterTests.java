@@ -0,0 +1,130 @@
+package com.teknolabs.student_api.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teknolabs.student_api.config.AdmissionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.cache.type=simple",
+    "student.admission.enabled=true",
+    "student.admission.client-header=X-Client",
+    "student.admission.per-client.rate=0.1",
+    "student.admission.per-client.burst=2",
+    "student.admission.endpoints.search.rate=0.1",
+    "student.admission.endpoints.search.burst=1"
+})
+class AdmissionFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void refusesAClientOverItsRateWithRetryAfter() throws Exception {
+        mockMvc.perform(get("/api/students/1").header("X-Client", "greedy")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/students/2").header("X-Client", "greedy")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/students/1").header("X-Client", "greedy"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+            .andExpect(jsonPath("$.status").value(429));
+        // Other clients are not held back
+        mockMvc.perform(get("/api/students/1").header("X-Client", "polite")).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("student.admission.rejected")
+            .tags("reason", "client-rate", "endpoint", "read").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keysOnTheHopAddedByTheProxyNotOnWhatTheClientSent() throws Exception {
+        mockMvc.perform(get("/api/students").param("ids", "1").header("X-Client", "forged-1, 10.0.0.7"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/students").param("ids", "1").header("X-Client", "forged-2, 10.0.0.7"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/students").param("ids", "1").header("X-Client", "forged-3, 10.0.0.7"))
+            .andExpect(status().isTooManyRequests());
+        assertThat(meterRegistry.get("student.admission.rejected")
+            .tags("reason", "client-rate", "endpoint", "lookup").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesAnEndpointOverItsRateForEveryClient() throws Exception {
+        mockMvc.perform(get("/api/students/search").param("q", "smith").header("X-Client", "first"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/students/search").param("q", "smith").header("X-Client", "second"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(get("/api/students/2").header("X-Client", "second")).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("student.admission.rejected")
+            .tags("reason", "endpoint-rate", "endpoint", "search").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shedsSearchesBeforeSingleStudentReadsWhenOverloaded() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getConcurrency().setRetryAfter(Duration.ofSeconds(3));
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 10, 10, 1.5, 0.2,
+            Duration.ofSeconds(1).toNanos(), System::nanoTime);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionFilter filter = new AdmissionFilter(properties, (key, rate) -> 0, limit, registry, new ObjectMapper());
+        // Requests already in progress fill the low priority share (6 of 10)
+        for (int i = 0; i < 6; i++) {
+            limit.tryAcquire(1.0);
+        }
+        AtomicInteger served = new AtomicInteger();
+
+        MockHttpServletResponse search = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/students/search"), search,
+            (request, response) -> served.incrementAndGet());
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/students/7"), read,
+            (request, response) -> served.incrementAndGet());
+
+        assertThat(search.getStatus()).isEqualTo(503);
+        assertThat(search.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(search.getContentAsString()).contains("overloaded");
+        assertThat(read.getStatus()).isEqualTo(200);
+        assertThat(served).hasValue(1);
+        assertThat(limit.getInFlight()).isEqualTo(6);
+        assertThat(registry.get("student.admission.rejected")
+            .tags("reason", "overload", "endpoint", "search", "priority", "low").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void classifiesStudentEndpoints() {
+        assertThat(Endpoint.of("GET", "/api/students/42", false)).isEqualTo(Endpoint.READ);
+        assertThat(Endpoint.of("GET", "/api/students", true)).isEqualTo(Endpoint.LOOKUP);
+        assertThat(Endpoint.of("GET", "/api/students", false)).isEqualTo(Endpoint.LIST);
+        assertThat(Endpoint.of("GET", "/api/students/cursor", false)).isEqualTo(Endpoint.LIST);
+        assertThat(Endpoint.of("GET", "/students", false)).isEqualTo(Endpoint.LIST);
+        assertThat(Endpoint.of("GET", "/api/students/42/events", false)).isEqualTo(Endpoint.OTHER);
+        assertThat(Endpoint.of("DELETE", "/api/students/42", false)).isEqualTo(Endpoint.WRITE);
+        assertThat(Endpoint.of("GET", "/actuator/health", false)).isNull();
+    }
+}
@@ -0,0 +1,75 @@
+package com.teknolabs.student_api.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    @Test
+    void allowsABurstThenOneRequestPerInterval() {
+        AtomicLong clock = new AtomicLong(1_000_000_000L);
+        TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+        assertThat(bucket.tryAcquire()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(60));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void refillsUpToTheBurstOnly() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void handsOutEachTokenOnceUnderContention() throws Exception {
+        // A clock that never moves: only the burst is available
+        TokenBucket bucket = new TokenBucket(1, 1000, () -> 0L);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire() == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(granted).hasValue(1000);
+    }
+}
@@ -0,0 +1,121 @@
+package com.teknolabs.student_api.benchmark;
+
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares offset and keyset pagination on page 1 and page 10,000 of a 20-row listing: a keyset
+ * page must cost about the same however deep it is, and a deep offset page must not. Timings are
+ * medians, so a GC pause or a slow first call does not decide the outcome. H2's reuse of the last
+ * result of an identical query is turned off, otherwise every repetition after the first is free.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/benchmark/keyset;CACHE_SIZE=8192;OPTIMIZE_REUSE_RESULTS=FALSE",
+    "spring.jpa.show-sql=false"
+})
+// Seeded rows are committed and kept between runs
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class KeysetPaginationBenchmarkTests {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int ROWS = (DEEP_PAGE + 1) * PAGE_SIZE;
+    private static final int ITERATIONS = 50;
+    // Page 10,000 against page 1; generous so that noise on a query of a few milliseconds cannot fail the build
+    private static final double MAXIMUM_KEYSET_RATIO = 3.0;
+    private static final double MINIMUM_OFFSET_SLOWDOWN = 5.0;
+    private static final int BATCH = 10_000;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Integer.class);
+        for (int start = existing; start < ROWS; start += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = start; i < Math.min(start + BATCH, ROWS); i++) {
+                rows.add(new Object[] {"Student " + i, "student" + i + "@example.com"});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO students (name, email, student_status, created_date, created_by) "
+                + "VALUES (?, ?, 'ACTIVE', CURRENT_TIMESTAMP(), 'SYSTEM')", rows);
+        }
+    }
+
+    @Test
+    void offsetVersusKeyset() {
+        Long deepId = jdbcTemplate.queryForObject("SELECT id FROM students ORDER BY id OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY",
+            Long.class, DEEP_PAGE * PAGE_SIZE - 1);
+        Student deepByName = studentRepository.findAll(PageRequest.of(DEEP_PAGE * PAGE_SIZE - 1, 1,
+            Sort.by("name", "id"))).getContent().get(0);
+
+        // Slices, so that the count query a page also runs does not hide the cost of the offset
+        double offsetFirst = report("offset by id, page 1",
+            () -> studentRepository.findSummarySlice(PageRequest.of(0, PAGE_SIZE, Sort.by("id"))));
+        double offsetDeep = report("offset by id, page 10000",
+            () -> studentRepository.findSummarySlice(PageRequest.of(DEEP_PAGE, PAGE_SIZE, Sort.by("id"))));
+        double offsetByNameFirst = report("offset by name, page 1",
+            () -> studentRepository.findSummarySlice(PageRequest.of(0, PAGE_SIZE, Sort.by("name", "id"))));
+        double offsetByNameDeep = report("offset by name, page 10000",
+            () -> studentRepository.findSummarySlice(PageRequest.of(DEEP_PAGE, PAGE_SIZE, Sort.by("name", "id"))));
+        double keysetFirst = report("keyset by id, page 1", () -> studentRepository.findNextById(0L, Limit.of(PAGE_SIZE)));
+        double keysetDeep = report("keyset by id, page 10000",
+            () -> studentRepository.findNextById(deepId, Limit.of(PAGE_SIZE)));
+        double byNameFirst = report("keyset by name, page 1",
+            () -> studentRepository.findNextByName("", 0L, Limit.of(PAGE_SIZE)));
+        double byNameDeep = report("keyset by name, page 10000",
+            () -> studentRepository.findNextByName(deepByName.getName(), deepByName.getId(), Limit.of(PAGE_SIZE)));
+
+        assertThat(keysetDeep / keysetFirst).isLessThanOrEqualTo(MAXIMUM_KEYSET_RATIO);
+        assertThat(byNameDeep / byNameFirst).isLessThanOrEqualTo(MAXIMUM_KEYSET_RATIO);
+        assertThat(offsetDeep / offsetFirst).isGreaterThan(keysetDeep / keysetFirst);
+        assertThat(offsetDeep).isGreaterThan(MINIMUM_OFFSET_SLOWDOWN * keysetDeep);
+        // Skipping 200,000 index entries by name takes ~20 ms, too close to the few ms a query costs
+        // through JPA here for a fixed margin; that deep pages get slower is enough
+        assertThat(offsetByNameDeep / offsetByNameFirst).isGreaterThan(byNameDeep / byNameFirst);
+    }
+
+    // Median microseconds per query after a warm-up
+    private static double report(String label, Supplier<?> query) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double micros = nanos[ITERATIONS / 2] / 1_000.0;
+        System.out.printf("%-28s %10.1f us/op%n", label, micros);
+        return micros;
+    }
+}
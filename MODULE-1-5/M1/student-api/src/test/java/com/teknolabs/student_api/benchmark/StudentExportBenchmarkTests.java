@@ -0,0 +1,102 @@
+package com.teknolabs.student_api.benchmark;
+
+import com.teknolabs.student_api.model.ExportFormat;
+import com.teknolabs.student_api.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports one million students through the streaming export. The benchmark profile runs tests
+ * with a 256 MB heap, which a materialized List of that many entities would not fit in.
+ * The database is file based so the rows themselves do not live on the heap either.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/benchmark/export;CACHE_SIZE=8192",
+    "spring.jpa.show-sql=false",
+    "spring.cache.type=simple",
+    "student.search.enabled=false"
+})
+class StudentExportBenchmarkTests {
+
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH = 10_000;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Integer.class);
+        for (int start = existing; start < ROWS; start += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = start; i < Math.min(start + BATCH, ROWS); i++) {
+                rows.add(new Object[] {"Student " + i, "student" + i + "@example.com"});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO students (name, email, date_of_birth, student_status, "
+                + "created_date, created_by) VALUES (?, ?, DATE '2000-01-01', 'ACTIVE', CURRENT_TIMESTAMP(), 'SYSTEM')",
+                rows);
+        }
+    }
+
+    @Test
+    void exportsOneMillionRowsWithBoundedMemory() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        System.gc();
+
+        long start = System.nanoTime();
+        long exported = studentService.exportStudents(null, null, null, ExportFormat.NDJSON, out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .mapToLong(pool -> pool.getPeakUsage().getUsed())
+            .sum();
+        System.out.printf("exported %d students, %d MB in %.1f s (%.0f rows/s), max heap %d MB, peak heap pools %d MB%n",
+            exported, out.count >> 20, seconds, exported / seconds,
+            Runtime.getRuntime().maxMemory() >> 20, peakHeap >> 20);
+
+        assertThat(exported).isGreaterThanOrEqualTo(ROWS);
+        assertThat(out.lines).isEqualTo(exported);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            count++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
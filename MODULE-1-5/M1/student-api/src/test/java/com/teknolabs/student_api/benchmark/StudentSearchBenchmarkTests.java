@@ -0,0 +1,120 @@
+package com.teknolabs.student_api.benchmark;
+
+import com.teknolabs.student_api.repository.StudentRepository;
+import com.teknolabs.student_api.search.StudentSearch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the LIKE '%keyword%' query with the in-memory search index on one million students,
+ * and reports how long the index takes to build and how much heap it holds.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Import(StudentSearch.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/benchmark/search;CACHE_SIZE=8192",
+    "spring.jpa.show-sql=false",
+    "student.search.enabled=true"
+})
+// Seeded rows are committed and kept between runs
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentSearchBenchmarkTests {
+
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH = 10_000;
+    private static final int ITERATIONS = 20;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+        "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+        "Thomas", "Sarah", "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Margaret",
+        "Anthony", "Betty", "Mark", "Sandra", "Donald", "Ashley", "Steven", "Dorothy", "Paul", "Kimberly",
+        "Andrew", "Emily", "Joshua", "Donna", "Amine", "Yasmine", "Mohamed", "Fatma", "Youssef", "Salma"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+        "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+        "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris",
+        "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright",
+        "Scott", "Torres", "Nguyen", "Hill", "Flores", "Ben Ali", "Trabelsi", "Gharbi", "Jebali", "Mansour"};
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentSearch studentSearch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Integer.class);
+        Random random = new Random(existing);
+        for (int start = existing; start < ROWS; start += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = start; i < Math.min(start + BATCH, ROWS); i++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                String email = (first + "." + last).toLowerCase().replace(" ", "") + i + "@example.com";
+                rows.add(new Object[] {first + " " + last, email});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO students (name, email, student_status, created_date, created_by) "
+                + "VALUES (?, ?, 'ACTIVE', CURRENT_TIMESTAMP(), 'SYSTEM')", rows);
+        }
+    }
+
+    @Test
+    void likeQueryVersusIndex() {
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        studentSearch.rebuild();
+        System.out.printf("index build                  %10.1f ms, %d MB retained%n",
+            (System.nanoTime() - start) / 1_000_000.0, (usedHeapAfterGc() - heapBefore) / (1024 * 1024));
+        assertThat(studentSearch.isReady()).isTrue();
+
+        for (String keyword : List.of("smith", "jo", "ssica", "john smith", "jhon")) {
+            report("like  '" + keyword + "'", () -> studentRepository.searchStudents(keyword, FIRST_PAGE));
+            report("index '" + keyword + "'", () -> studentSearch.search(keyword, FIRST_PAGE).orElseThrow());
+        }
+        assertThat(studentRepository.searchStudents("jhon", FIRST_PAGE).getTotalElements()).isZero();
+        assertThat(studentSearch.search("jhon", FIRST_PAGE).orElseThrow().getContent()).isNotEmpty();
+    }
+
+    private static void report(String label, Supplier<?> query) {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            query.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+        System.out.printf("%-28s %10.2f ms/op%n", label, millis);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,194 @@
+package com.teknolabs.student_api.benchmark;
+
+import com.teknolabs.student_api.StudentApiApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Burst load with virtual threads off and on. Many clients hit an uncached listing whose SQL takes
+ * 50 ms (a remote database, simulated) through a pool of 20 connections, while a few clients read
+ * a cached student. With platform threads, the listing requests occupy every Tomcat thread while
+ * they wait for a connection and the cached reads queue behind them; with virtual threads only
+ * the connection pool limits the listing and cached reads stay fast.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTests {
+
+    private static final Duration STATEMENT_LATENCY = Duration.ofMillis(50);
+    private static final int SLOW_CLIENTS = 300;
+    private static final int FAST_CLIENTS = 10;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.println("mode      endpoint         requests/s   p50 ms   p99 ms   errors");
+        platform.print("platform");
+        virtual.print("virtual");
+
+        assertThat(virtual.fast.percentile(99)).isLessThan(platform.fast.percentile(99));
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+            "--spring.datasource.hikari.maximum-pool-size=20",
+            "--spring.cache.type=simple",
+            "--spring.jpa.show-sql=false",
+            "--student.search.enabled=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN"));
+        if (virtualThreads) {
+            args.add("--spring.profiles.active=virtual-threads");
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentApiApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new StatementLatency()))
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            return load(URI.create(base + "/api/students/cursor?size=20"), URI.create(base + "/api/students/1"));
+        }
+    }
+
+    private Result load(URI slowUri, URI fastUri) throws InterruptedException {
+        Result result = new Result();
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP.toNanos();
+        long end = measureFrom + MEASUREMENT.toNanos();
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SLOW_CLIENTS; i++) {
+                clients.submit(() -> loop(client, slowUri, measureFrom, end, result.slow));
+            }
+            for (int i = 0; i < FAST_CLIENTS; i++) {
+                clients.submit(() -> loop(client, fastUri, measureFrom, end, result.fast));
+            }
+        }
+        return result;
+    }
+
+    private static void loop(HttpClient client, URI uri, long measureFrom, long end, Latencies latencies) {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            boolean ok;
+            try {
+                ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (Exception ex) {
+                ok = false;
+            }
+            if (now >= measureFrom) {
+                latencies.record(System.nanoTime() - now, ok);
+            }
+        }
+    }
+
+    private static class Result {
+        final Latencies slow = new Latencies();
+        final Latencies fast = new Latencies();
+
+        void print(String mode) {
+            slow.print(mode, "listing (SQL)");
+            fast.print(mode, "cached by id");
+        }
+    }
+
+    private static class Latencies {
+        private final List<Long> nanos = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger errors = new AtomicInteger();
+
+        void record(long latency, boolean ok) {
+            nanos.add(latency);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        double percentile(int percentile) {
+            List<Long> sorted = new ArrayList<>(nanos);
+            Collections.sort(sorted);
+            if (sorted.isEmpty()) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+
+        void print(String mode, String endpoint) {
+            System.out.printf("%-9s %-15s %11.0f %8.1f %8.1f %8d%n", mode, endpoint,
+                nanos.size() / (double) MEASUREMENT.toSeconds(), percentile(50), percentile(99), errors.get());
+        }
+    }
+
+    /**
+     * Delays every SQL statement as if the database were across the network.
+     */
+    private static class StatementLatency implements BeanPostProcessor {
+
+        private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeBatch");
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource, (method, result) ->
+                    method.getName().equals("getConnection") ? proxy(Connection.class, (Connection) result,
+                        (connectionMethod, statement) -> connectionMethod.getName().equals("prepareStatement")
+                            ? proxy(PreparedStatement.class, (PreparedStatement) statement, null)
+                            : statement)
+                        : result);
+            }
+            return bean;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, ResultWrapper wrapper) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                if (wrapper == null && EXECUTE.contains(method.getName())) {
+                    Thread.sleep(STATEMENT_LATENCY);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+                return wrapper == null ? result : wrapper.wrap(method, result);
+            });
+        }
+
+        private interface ResultWrapper {
+            Object wrap(Method method, Object result);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.teknolabs.student_api.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoalescingCacheTests {
+
+    private static final int CALLERS = 32;
+
+    private final ConcurrentMapCache delegate = new ConcurrentMapCache("students");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CoalescingCache cache = cache(Duration.ofHours(1), null);
+
+        List<Object> values = getConcurrently(cache, () -> {
+            loads.incrementAndGet();
+            Thread.sleep(200);
+            return "John Doe";
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(values).hasSize(CALLERS).containsOnly("John Doe");
+        assertThat(meterRegistry.get("cache.loads.coalesced").counter().count()).isPositive();
+    }
+
+    @Test
+    void sharesFailedLoadWithoutCachingIt() throws Exception {
+        CoalescingCache cache = cache(Duration.ofHours(1), null);
+
+        List<Future<Object>> results = submitConcurrently(cache, () -> {
+            loads.incrementAndGet();
+            Thread.sleep(200);
+            throw new IllegalStateException("database down");
+        });
+        for (Future<Object> result : results) {
+            assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class)
+                .rootCause().hasMessage("database down");
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get(1L, () -> "John Doe")).isEqualTo("John Doe");
+    }
+
+    @Test
+    void servesFreshEntriesWithoutReloading() {
+        CoalescingCache cache = cache(Duration.ofHours(1), null);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.get(1L, () -> "John Doe " + loads.incrementAndGet());
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void refreshesExpiringEntryOnceWhileOthersKeepCurrentValue() throws Exception {
+        // A zero time to live puts every entry past its expiry, so every read wants to refresh it
+        CoalescingCache cache = cache(Duration.ZERO, null);
+        cache.get(1L, () -> "John Doe");
+        CountDownLatch othersServed = new CountDownLatch(CALLERS - 1);
+
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                Object value = cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    othersServed.await(10, TimeUnit.SECONDS);
+                    return "John Smith";
+                });
+                othersServed.countDown();
+                return value;
+            }));
+        }
+        List<Object> values = new ArrayList<>();
+        for (Future<Object> result : results) {
+            values.add(result.get(10, TimeUnit.SECONDS));
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(values).filteredOn("John Smith"::equals).hasSize(1);
+        assertThat(values).filteredOn("John Doe"::equals).hasSize(CALLERS - 1);
+    }
+
+    @Test
+    void waitsForValueLoadedByNodeHoldingTheLock() {
+        RedisLoadLock loadLock = mock(RedisLoadLock.class);
+        when(loadLock.tryAcquire(anyString(), any())).thenReturn(null);
+        when(loadLock.getLease()).thenReturn(Duration.ofSeconds(5));
+        CoalescingCache cache = cache(Duration.ofHours(1), loadLock);
+        CoalescingCache otherNode = cache(Duration.ofHours(1), null);
+        executor.submit(() -> {
+            Thread.sleep(100);
+            otherNode.put(1L, "John Doe");
+            return null;
+        });
+
+        Object value = cache.get(1L, () -> "loaded here " + loads.incrementAndGet());
+
+        assertThat(value).isEqualTo("John Doe");
+        assertThat(loads).hasValue(0);
+    }
+
+    private CoalescingCache cache(Duration timeToLive, RedisLoadLock loadLock) {
+        return new CoalescingCache(delegate, timeToLive, 1.0, loadLock, Duration.ofMillis(10), meterRegistry);
+    }
+
+    private List<Object> getConcurrently(Cache cache, Callable<Object> loader) throws Exception {
+        List<Object> values = new ArrayList<>();
+        for (Future<Object> result : submitConcurrently(cache, loader)) {
+            values.add(result.get(10, TimeUnit.SECONDS));
+        }
+        return values;
+    }
+
+    private List<Future<Object>> submitConcurrently(Cache cache, Callable<Object> loader) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get(1L, loader);
+            }));
+        }
+        start.countDown();
+        return results;
+    }
+}
@@ -0,0 +1,49 @@
+package com.teknolabs.student_api.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeySketchTests {
+
+    @Test
+    void reportsTheMostFrequentKeysAmongManyColdOnes() {
+        HotKeySketch sketch = new HotKeySketch(1024, 3);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            sketch.record("id:" + (1000 + random.nextInt(5000)));
+            if (i % 10 == 0) {
+                sketch.record("id:1");
+            }
+            if (i % 20 == 0) {
+                sketch.record("id:2");
+            }
+            if (i % 40 == 0) {
+                sketch.record("search:20:smith");
+            }
+        }
+
+        assertThat(sketch.top(3)).containsExactly("id:1", "id:2", "search:20:smith");
+        assertThat(sketch.estimate("id:1")).isGreaterThanOrEqualTo(2000);
+    }
+
+    @Test
+    void decayHalvesCountsAndForgetsKeysSeenOnce() {
+        HotKeySketch sketch = new HotKeySketch(64, 10);
+        for (int i = 0; i < 8; i++) {
+            sketch.record("id:1");
+        }
+        sketch.record("id:2");
+
+        sketch.decay();
+
+        assertThat(sketch.estimate("id:1")).isEqualTo(4);
+        assertThat(sketch.top(10)).containsExactly("id:1");
+        sketch.decay();
+        sketch.decay();
+        sketch.decay();
+        assertThat(sketch.isEmpty()).isTrue();
+    }
+}
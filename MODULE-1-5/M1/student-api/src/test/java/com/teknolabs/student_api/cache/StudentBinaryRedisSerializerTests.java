@@ -0,0 +1,112 @@
+package com.teknolabs.student_api.cache;
+
+import com.teknolabs.student_api.config.RedisConfig;
+import com.teknolabs.student_api.config.StudentCacheProperties;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentBinaryRedisSerializerTests {
+
+    private final RedisSerializer<Object> json = RedisConfig.cacheValueSerializer(StudentCacheProperties.Serialization.JSON);
+    private final RedisSerializer<Object> binary = RedisConfig.cacheValueSerializer(StudentCacheProperties.Serialization.BINARY);
+
+    @Test
+    void roundTripsStudentsListsPagesAndGenerations() {
+        Student student = student(42);
+        Student sparse = new Student();
+        sparse.setName("No Optional Fields");
+        sparse.setStatus(null);
+        sparse.setDateOfBirth(LocalDate.of(1965, 5, 1));
+        CachedPage<Student> page = new CachedPage<>(List.of(student(1), student(2)), 250);
+
+        assertThat(binary.deserialize(binary.serialize(student))).isEqualTo(student);
+        assertThat(binary.deserialize(binary.serialize(sparse))).isEqualTo(sparse);
+        assertThat(binary.deserialize(binary.serialize(List.of(student, sparse)))).isEqualTo(List.of(student, sparse));
+        assertThat(binary.deserialize(binary.serialize(page))).isEqualTo(page);
+        assertThat(binary.deserialize(binary.serialize("b9b3c2f0-generation"))).isEqualTo("b9b3c2f0-generation");
+    }
+
+    @Test
+    void roundTripsValuesWrappedWithExpiry() {
+        CachedValue student = new CachedValue(student(42), 1_760_000_000_000L, 12);
+        CachedValue missing = new CachedValue(null, 1_760_000_000_000L, 3);
+        CachedValue counts = new CachedValue(new HashMap<>(Map.of("ACTIVE", 3L)), 1_760_000_000_000L, 40);
+
+        assertThat(binary.deserialize(binary.serialize(student))).isEqualTo(student);
+        assertThat(binary.deserialize(binary.serialize(missing))).isEqualTo(missing);
+        assertThat(binary.deserialize(binary.serialize(counts))).isEqualTo(counts);
+        assertThat(json.deserialize(json.serialize(student))).isEqualTo(student);
+    }
+
+    @Test
+    void fallsBackToJsonForOtherValuesAndOldEntries() {
+        Map<String, Long> counts = new HashMap<>(Map.of("ACTIVE", 3L));
+
+        assertThat(binary.deserialize(binary.serialize(counts))).isEqualTo(counts);
+        assertThat(binary.deserialize(json.serialize(student(7)))).isEqualTo(student(7));
+    }
+
+    @Test
+    void treatsUnknownLayoutVersionAsMiss() {
+        byte[] bytes = binary.serialize(student(7));
+        bytes[1] = StudentBinaryRedisSerializer.VERSION + 1;
+
+        assertThat(binary.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    void treatsTruncatedAndCorruptEntriesAsMiss() {
+        byte[] bytes = binary.serialize(new CachedPage<>(List.of(student(1), student(2)), 250));
+        byte[] corrupt = bytes.clone();
+        // The total element count is the first varint after the marker, version and type bytes
+        Arrays.fill(corrupt, 3, corrupt.length, (byte) 0xFF);
+
+        for (int length = 1; length < bytes.length; length++) {
+            assertThat(binary.deserialize(Arrays.copyOf(bytes, length))).isNull();
+        }
+        assertThat(binary.deserialize(corrupt)).isNull();
+        assertThat(binary.deserialize(Arrays.copyOf(binary.serialize(Map.of("ACTIVE", 3L)), 6))).isNull();
+    }
+
+    @Test
+    void isSeveralTimesSmallerThanJson() {
+        Student student = student(42);
+        CachedPage<Student> page = new CachedPage<>(LongStream.rangeClosed(1, 20).mapToObj(this::student).toList(), 1_000);
+
+        int studentJson = json.serialize(student).length;
+        int studentBinary = binary.serialize(student).length;
+        int pageJson = json.serialize(page).length;
+        int pageBinary = binary.serialize(page).length;
+
+        assertThat(studentBinary * 3).isLessThan(studentJson);
+        assertThat(pageBinary * 3).isLessThan(pageJson);
+    }
+
+    private Student student(long id) {
+        Student student = new Student();
+        student.setId(id);
+        student.setName("Jane Smith");
+        student.setEmail("jane.smith" + id + "@example.com");
+        student.setDateOfBirth(LocalDate.of(2001, 3, 21));
+        student.setPhoneNumber("+1234567891");
+        student.setStatus(StudentStatus.GRADUATED);
+        student.setCreatedDate(LocalDateTime.of(2024, 1, 15, 10, 30, 5, 123_456_000));
+        student.setCreatedBy("SYSTEM");
+        student.setLastModifiedDate(LocalDateTime.of(2024, 2, 1, 8, 0));
+        student.setLastModifiedBy("admin");
+        student.setVersion(3L);
+        return student;
+    }
+}
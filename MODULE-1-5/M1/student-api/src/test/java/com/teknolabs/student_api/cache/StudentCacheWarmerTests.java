@@ -0,0 +1,55 @@
+package com.teknolabs.student_api.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {"spring.cache.type=simple", "student.cache.warm-up.students=0",
+    "student.cache.warm-up.batch-size=1", "student.cache.warm-up.hot-keys.store=file",
+    "student.cache.warm-up.hot-keys.size=2"})
+class StudentCacheWarmerTests {
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @DynamicPropertySource
+    static void hotKeysFile(DynamicPropertyRegistry registry) throws IOException {
+        Path file = directory.resolve("hot-keys.txt");
+        Files.write(file, List.of("id:3", "id:999999", "search:20:smith", "unknown"));
+        registry.add("student.cache.warm-up.hot-keys.file", file::toString);
+    }
+
+    @Test
+    void loadsTheSavedHotKeysAtStartupAndSavesNewOnes() throws IOException {
+        assertThat(cacheManager.getCache(StudentQueryCache.ENTITIES).get(3L)).isNotNull();
+        assertThat(cacheManager.getCache(StudentQueryCache.ENTITIES).get(1L)).isNull();
+
+        hotKeyTracker.studentRead(1L);
+        hotKeyTracker.studentRead(1L);
+        hotKeyTracker.studentRead(2L);
+        hotKeyTracker.searched("doe", 1, 20);
+        hotKeyTracker.save();
+
+        assertThat(Files.readAllLines(directory.resolve("hot-keys.txt"))).containsExactly("id:1", "id:2");
+        assertThat(hotKeyTracker.savedHotKeys().studentIds()).containsExactly(1L, 2L);
+    }
+}
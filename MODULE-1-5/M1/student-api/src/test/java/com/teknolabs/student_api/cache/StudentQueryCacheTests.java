@@ -0,0 +1,58 @@
+package com.teknolabs.student_api.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentQueryCacheTests {
+
+    private final StudentQueryCache queryCache = new StudentQueryCache(new ConcurrentMapCacheManager());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void keysPagesByPageSizeAndSort() {
+        Pageable first = PageRequest.of(0, 2, Sort.by("name"));
+        Pageable second = PageRequest.of(1, 2, Sort.by("name"));
+        Pageable descending = PageRequest.of(0, 2, Sort.by("name").descending());
+
+        Page<String> page = load(first);
+        load(first);
+        load(second);
+        load(descending);
+
+        assertThat(loads).hasValue(3);
+        assertThat(page.getContent()).containsExactly("page-0");
+        assertThat(page.getPageable()).isEqualTo(first);
+        assertThat(page.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    void invalidationDropsListAndPageEntries() {
+        Pageable pageable = PageRequest.of(0, 2);
+        load(pageable);
+        queryCache.list(StudentQueryCache.ALL, "all", () -> List.of(loads.incrementAndGet()));
+
+        queryCache.invalidateQueries();
+        load(pageable);
+        List<Integer> all = queryCache.list(StudentQueryCache.ALL, "all", () -> List.of(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(4);
+        assertThat(all).containsExactly(4);
+    }
+
+    private Page<String> load(Pageable pageable) {
+        return queryCache.page(StudentQueryCache.SEARCH, "doe", pageable, () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(List.of("page-" + pageable.getPageNumber()), pageable, 10);
+        });
+    }
+}
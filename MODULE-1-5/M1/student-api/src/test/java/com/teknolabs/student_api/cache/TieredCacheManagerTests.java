@@ -0,0 +1,143 @@
+package com.teknolabs.student_api.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teknolabs.student_api.config.StudentCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TieredCacheManagerTests {
+
+    private final ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StudentCacheProperties.Near properties = new StudentCacheProperties.Near();
+
+    private TieredCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TieredCacheManager(remoteCacheManager, properties, redisTemplate, meterRegistry);
+    }
+
+    @Test
+    void servesRepeatedReadsFromLocalTier() {
+        remoteCacheManager.getCache("students").put(1L, "John Doe");
+        Cache cache = cacheManager.getCache("students");
+
+        assertThat(cache.get(1L).get()).isEqualTo("John Doe");
+        assertThat(cache.get(1L).get()).isEqualTo("John Doe");
+
+        assertThat(count("l2", "hit")).isEqualTo(1);
+        assertThat(count("l1", "miss")).isEqualTo(1);
+        assertThat(count("l1", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void publishesInvalidationOnWrite() {
+        Cache cache = cacheManager.getCache("students");
+
+        cache.evict(1L);
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(properties.getInvalidationChannel()), payload.capture());
+        assertThat(payload.getValue()).endsWith("|students|1");
+    }
+
+    @Test
+    void evictsLocalEntryWhenAnotherNodeChangesIt() {
+        Cache cache = cacheManager.getCache("students");
+        cache.put(1L, "John Doe");
+
+        // Simulate the write happening on another node: Redis is updated, the message arrives
+        remoteCacheManager.getCache("students").put(1L, "John Smith");
+        cacheManager.onMessage(message("other-node|students|1"), null);
+
+        assertThat(cache.get(1L).get()).isEqualTo("John Smith");
+    }
+
+    @Test
+    void ignoresItsOwnInvalidations() {
+        Cache cache = cacheManager.getCache("students");
+        cache.put(1L, "John Doe");
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(anyString(), payload.capture());
+        cacheManager.onMessage(message(payload.getValue()), null);
+        cache.get(1L);
+
+        assertThat(count("l1", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void readsManyKeysFromBothTiersAndFillsOnlyMissingOnes() {
+        TieredCache cache = (TieredCache) cacheManager.getCache("students");
+        cache.put(1L, "John Doe");
+        remoteCacheManager.getCache("students").put(2L, "Jane Smith");
+
+        Map<Object, Cache.ValueWrapper> found = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(found).containsOnlyKeys(1L, 2L);
+        assertThat(found.get(2L).get()).isEqualTo("Jane Smith");
+        assertThat(count("l1", "hit")).isEqualTo(1);
+        assertThat(count("l2", "hit")).isEqualTo(1);
+        assertThat(count("l2", "miss")).isEqualTo(1);
+
+        assertThat(cache.putAllIfAbsent(Map.of(2L, "Stale Jane", 3L, "Alice Johnson"))).containsExactly(3L);
+        assertThat(cache.get(2L).get()).isEqualTo("Jane Smith");
+        assertThat(remoteCacheManager.getCache("students").get(3L).get()).isEqualTo("Alice Johnson");
+    }
+
+    @Test
+    void doesNotKeepAValueReadWhileAnotherNodeChangedIt() {
+        AtomicReference<TieredCache> tiered = new AtomicReference<>();
+        Cache remote = new ConcurrentMapCache("students") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper read = super.get(key);
+                // Another node writes and its invalidation arrives while this read is in flight
+                put(key, "John Smith");
+                tiered.get().evictLocal(TieredCache.localKey(key));
+                return read;
+            }
+        };
+        remote.put(1L, "John Doe");
+        tiered.set(new TieredCache("students", Caffeine.newBuilder().build(), remote, (cache, key) -> { },
+            meterRegistry));
+
+        assertThat(tiered.get().get(1L).get()).isEqualTo("John Doe");
+        assertThat(tiered.get().getAll(List.of(1L)).get(1L).get()).isEqualTo("John Smith");
+
+        assertThat(count("l1", "hit")).isZero();
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets")
+            .tag("cache", "students")
+            .tag("tier", tier)
+            .tag("result", result)
+            .counter()
+            .count();
+    }
+
+    private static DefaultMessage message(String payload) {
+        return new DefaultMessage(new byte[0], payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,218 @@
+package com.teknolabs.student_api.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "spring.cache.type=simple")
+class StudentControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportsOneStudentPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/students/export").param("status", "ACTIVE"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.split("\n")).hasSize(3).allMatch(line -> line.contains("\"status\":\"ACTIVE\""));
+    }
+
+    @Test
+    void exportsBirthDateRangeAsJsonArray() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/students/export")
+                .param("format", "JSON")
+                .param("bornAfter", "2001-01-01"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].name").value("Jane Smith"))
+            .andExpect(jsonPath("$[1].name").value("Bob Wilson"));
+    }
+
+    @Test
+    void walksCursorPages() throws Exception {
+        mockMvc.perform(get("/api/students/cursor").param("sort", "NAME").param("size", "3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(3))
+            .andExpect(jsonPath("$.content[0].name").value("Alice Johnson"))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void rejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/students/cursor").param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnsOnlySelectedFields() throws Exception {
+        mockMvc.perform(get("/api/students").param("fields", "name, id"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(1))
+            .andExpect(jsonPath("$[0].name").value("John Doe"))
+            .andExpect(jsonPath("$[0].email").doesNotExist())
+            .andExpect(jsonPath("$[0].createdDate").doesNotExist());
+
+        mockMvc.perform(get("/api/students").param("fields", "id,password"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listsSummariesInApiAndView() throws Exception {
+        mockMvc.perform(get("/api/students/summaries").param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[1].name").value("Jane Smith"))
+            .andExpect(jsonPath("$.content[1].status").exists())
+            .andExpect(jsonPath("$.content[1].phoneNumber").doesNotExist())
+            .andExpect(jsonPath("$.totalElements").value(4));
+
+        mockMvc.perform(get("/students"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("alice.j@example.com")));
+    }
+
+    @Test
+    void listsStudentsPageByPageInTheRequestedOrder() throws Exception {
+        mockMvc.perform(get("/students").param("page", "1").param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("Page 2 of")))
+            .andExpect(content().string(containsString("Alice Johnson")))
+            .andExpect(content().string(containsString("Bob Wilson")))
+            .andExpect(content().string(not(containsString("Jane Smith"))));
+
+        String html = mockMvc.perform(get("/students").param("size", "500").param("sort", "name").param("dir", "DESC"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(html.indexOf("Jane Smith")).isLessThan(html.indexOf("Bob Wilson"));
+        assertThat(html.indexOf("Bob Wilson")).isLessThan(html.indexOf("Alice Johnson"));
+
+        mockMvc.perform(get("/students").param("sort", "password"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getsSeveralStudentsInTheOrderAsked() throws Exception {
+        mockMvc.perform(get("/api/students").param("ids", "3,1,999999"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].name").value("Alice Johnson"))
+            .andExpect(jsonPath("$[1].name").value("John Doe"));
+
+        mockMvc.perform(get("/api/students").param("ids", ""))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void answersNotModifiedWhileValidatorsMatch() throws Exception {
+        MvcResult student = mockMvc.perform(get("/api/students/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn();
+        String etag = student.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).matches("\"\\d+\"");
+
+        mockMvc.perform(get("/api/students/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        mockMvc.perform(get("/api/students/1")
+                .header(HttpHeaders.IF_MODIFIED_SINCE, student.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+            .andExpect(status().isNotModified());
+
+        String listEtag = mockMvc.perform(get("/api/students").param("fields", "id,name"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/students").param("fields", "id,name").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/students").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void createsANewStudentWhateverIdTheClientSends() throws Exception {
+        String created = mockMvc.perform(post("/api/students")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":1,\"version\":5,\"name\":\"Id Sender\",\"email\":\"id.sender@example.com\"}"))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andReturn().getResponse().getContentAsString();
+        String id = created.replaceAll(".*\"id\":(\\d+).*", "$1");
+        try {
+            assertThat(id).isNotEqualTo("1");
+            mockMvc.perform(get("/api/students/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John Doe"));
+        } finally {
+            mockMvc.perform(delete("/api/students/" + id));
+        }
+    }
+
+    @Test
+    void updatesOnlyWhenIfMatchIsCurrent() throws Exception {
+        String created = mockMvc.perform(post("/api/students")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Etag Tester\",\"email\":\"etag@example.com\"}"))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andReturn().getResponse().getContentAsString();
+        String id = created.replaceAll(".*\"id\":(\\d+).*", "$1");
+        String listEtag = mockMvc.perform(get("/api/students")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        try {
+            mockMvc.perform(put("/api/students/" + id)
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"Etag Renamed\",\"email\":\"etag@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.name").value("Etag Renamed"));
+
+            // A second writer still holding the old ETag must not overwrite the first one's change
+            mockMvc.perform(put("/api/students/" + id)
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"Lost Update\",\"email\":\"etag@example.com\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+            mockMvc.perform(get("/api/students/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Etag Renamed"));
+            mockMvc.perform(get("/api/students").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isOk());
+        } finally {
+            mockMvc.perform(delete("/api/students/" + id));
+        }
+    }
+}
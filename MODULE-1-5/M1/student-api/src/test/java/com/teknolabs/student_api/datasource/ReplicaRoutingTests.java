@@ -0,0 +1,188 @@
+package com.teknolabs.student_api.datasource;
+
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentSummary;
+import com.teknolabs.student_api.service.StudentService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.cache.type=simple",
+    "student.datasource.replicas.enabled=true",
+    "student.datasource.replicas.urls=" + ReplicaRoutingTests.REPLICA_1 + "," + ReplicaRoutingTests.REPLICA_2
+        + "," + ReplicaRoutingTests.UNREACHABLE,
+    "student.datasource.replicas.connection-timeout=250ms",
+    "student.datasource.replicas.read-your-writes-window=1s"
+})
+class ReplicaRoutingTests {
+
+    static final String REPLICA_1 = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:replica2;DB_CLOSE_DELAY=-1";
+    static final String UNREACHABLE = "jdbc:h2:tcp://localhost:1/unreachable";
+    private static final Pageable FIRST_STUDENT = PageRequest.of(0, 1, Sort.by("id"));
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private ReplicaSet replicaSet;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void createReplicas() {
+        // Separate databases with the same schema, their names marked so that the reads show where they went
+        for (String url : List.of(REPLICA_1, REPLICA_2)) {
+            Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration").load().migrate();
+            String name = url.substring("jdbc:h2:mem:".length(), url.indexOf(';'));
+            new JdbcTemplate(dataSource(url)).update("UPDATE students SET name = CONCAT(name, ' @" + name + "') "
+                + "WHERE name NOT LIKE '% @%'");
+        }
+    }
+
+    @BeforeEach
+    void forgetEarlierWrites() {
+        readYourWrites.end();
+    }
+
+    @Test
+    void spreadsReadOnlyTransactionsOverHealthyReplicas() {
+        assertThat(replicaSet.getReplicas())
+            .extracting(Replica::getName, Replica::isHealthy)
+            .containsExactly(
+                tuple("replica-1", true),
+                tuple("replica-2", true),
+                tuple("replica-3", false));
+
+        Set<String> sources = IntStream.range(0, 6)
+            .mapToObj(i -> source(studentService.getStudentSummaryPage(FIRST_STUDENT)))
+            .collect(Collectors.toSet());
+        assertThat(sources).containsExactlyInAnyOrder("replica1", "replica2");
+
+        // Cache loads read the primary whatever the transaction says
+        assertThat(studentService.getStudentById(2L)).hasValueSatisfying(
+            student -> assertThat(student.getName()).isEqualTo("Jane Smith"));
+    }
+
+    @Test
+    void readsFollowWritesToThePrimaryWithinTheWindow() throws Exception {
+        Student student = new Student();
+        student.setName("Sticky Writer");
+        student.setEmail("sticky@replicas.test");
+        Student saved = studentService.saveStudent(student);
+        try {
+            assertThat(source(studentService.getStudentSummaryPage(FIRST_STUDENT))).isEqualTo("primary");
+            Thread.sleep(1100);
+            assertThat(source(studentService.getStudentSummaryPage(FIRST_STUDENT))).startsWith("replica");
+        } finally {
+            studentService.deleteStudent(saved.getId());
+        }
+    }
+
+    @Test
+    void carriesTheWindowAcrossRequestsInACookie() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/students")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Cookie Writer\",\"email\":\"cookie@replicas.test\"}"))
+            .andExpect(status().isCreated())
+            .andExpect(cookie().exists(ReadYourWrites.COOKIE))
+            .andReturn();
+        String id = created.getResponse().getContentAsString().replaceAll(".*\"id\":(\\d+).*", "$1");
+        try {
+            mockMvc.perform(get("/api/students/summaries").param("size", "1")
+                    .cookie(created.getResponse().getCookie(ReadYourWrites.COOKIE)))
+                .andExpect(jsonPath("$.content[0].name").value("John Doe"));
+            mockMvc.perform(get("/api/students/summaries").param("size", "1"))
+                .andExpect(jsonPath("$.content[0].name").value(startsWith("John Doe @replica")));
+        } finally {
+            mockMvc.perform(delete("/api/students/" + id));
+        }
+    }
+
+    @Test
+    void failsOverToThePrimaryWhenNoReplicaAnswers() throws Exception {
+        JdbcDataSource primary = dataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+        ReplicaSet unreachable = new ReplicaSet(List.of(new Replica("down", dataSource(UNREACHABLE))),
+            Duration.ofMinutes(1), new SimpleMeterRegistry());
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, unreachable,
+            new ReadYourWrites(Duration.ZERO), new SimpleMeterRegistry());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = routing.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).contains("routing-primary");
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        assertThat(unreachable.getReplicas().get(0).isHealthy()).isFalse();
+    }
+
+    @Test
+    void keepsABusyReplicaInTheRotation() throws Exception {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(REPLICA_1);
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(250);
+        try (Replica replica = new Replica("busy", pool); Connection held = replica.getConnection()) {
+            assertThatThrownBy(replica::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+            replica.check();
+
+            assertThat(replica.isHealthy()).isTrue();
+        }
+    }
+
+    private static String source(Page<StudentSummary> summaries) {
+        String name = summaries.getContent().get(0).name();
+        return name.contains(" @") ? name.substring(name.indexOf(" @") + 2) : "primary";
+    }
+
+    private static JdbcDataSource dataSource(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,75 @@
+package com.teknolabs.student_api.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventRingBufferTests {
+
+    @Test
+    void rejectsOffersWhenFullAndReusesDrainedSlots() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(3);
+        assertThat(buffer.capacity()).isEqualTo(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(2);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 5_000;
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + perProducer; i++) {
+                        while (!buffer.offer(i)) {
+                            // Give the CPU to the consumer: spinning starves it on a single core
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            List<Integer> drained = new ArrayList<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (drained.size() < producers * perProducer && System.nanoTime() < deadline) {
+                if (buffer.drainTo(drained, 16) == 0) {
+                    Thread.yield();
+                }
+            }
+
+            assertThat(drained).hasSize(producers * perProducer).doesNotHaveDuplicates();
+            // Each producer's elements come out in the order it offered them
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                assertThat(drained.stream().filter(i -> i >= first && i < first + perProducer).toList()).isSorted();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
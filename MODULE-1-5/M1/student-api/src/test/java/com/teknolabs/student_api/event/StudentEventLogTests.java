@@ -0,0 +1,126 @@
+package com.teknolabs.student_api.event;
+
+import com.teknolabs.student_api.cache.StudentQueryCache;
+import com.teknolabs.student_api.model.ReplayResult;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentEvent;
+import com.teknolabs.student_api.model.StudentEventType;
+import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A tiny buffer, so writers regularly find it full and have to wait or flush it themselves
+@SpringBootTest
+@TestPropertySource(properties = {"spring.cache.type=simple", "student.events.buffer-size=4",
+    "student.events.batch-size=2", "student.events.flush-interval=1h", "student.events.offer-timeout=1ms"})
+class StudentEventLogTests {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentEventLog studentEventLog;
+
+    @Autowired
+    private StudentEventReplayer studentEventReplayer;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void recordsEveryChangeOfAStudentInOrder() {
+        Student saved = studentService.saveStudent(student("Eve Events", "eve@events.test"));
+        Student changes = student("Eve Renamed", "eve@events.test");
+        studentService.updateStudent(saved.getId(), changes, null);
+        studentService.updateStudentStatus(saved.getId(), StudentStatus.SUSPENDED);
+        studentService.deleteStudent(saved.getId());
+
+        List<StudentEvent> events = studentEventLog.findByStudent(saved.getId());
+
+        assertThat(events).extracting(StudentEvent::getType).containsExactly(StudentEventType.CREATED,
+            StudentEventType.UPDATED, StudentEventType.STATUS_CHANGED, StudentEventType.DELETED);
+        assertThat(events.get(0).getPayload()).contains("\"name\":\"Eve Events\"", "\"version\":0");
+        assertThat(events.get(1).getPayload()).contains("\"name\":\"Eve Renamed\"", "\"version\":1");
+        assertThat(events.get(2).getStatus()).isEqualTo(StudentStatus.SUSPENDED);
+        assertThat(events).allSatisfy(event -> assertThat(event.getActor()).isEqualTo("SYSTEM"));
+    }
+
+    @Test
+    void recordsOnlyTheStudentsABulkTransitionMoved() {
+        Student moved = studentService.saveStudent(student("Mia Moved", "mia@events.test"));
+        Student unchanged = studentService.saveStudent(student("Uma Unchanged", "uma@events.test"));
+        studentService.updateStudentStatus(unchanged.getId(), StudentStatus.INACTIVE);
+        long missing = 900_999L;
+
+        try {
+            studentService.updateStatusForIds(List.of(moved.getId(), unchanged.getId(), missing), StudentStatus.INACTIVE);
+            studentService.updateStudentStatus(moved.getId(), StudentStatus.INACTIVE);
+
+            assertThat(studentEventLog.findByStudent(moved.getId())).extracting(StudentEvent::getType)
+                .containsExactly(StudentEventType.CREATED, StudentEventType.STATUS_CHANGED);
+            assertThat(studentEventLog.findByStudent(unchanged.getId())).extracting(StudentEvent::getType)
+                .containsExactly(StudentEventType.CREATED, StudentEventType.STATUS_CHANGED);
+            assertThat(studentEventLog.findByStudent(missing)).isEmpty();
+        } finally {
+            studentService.deleteStudent(moved.getId());
+            studentService.deleteStudent(unchanged.getId());
+        }
+    }
+
+    @Test
+    void keepsEveryEventWhenWritersOutpaceTheBuffer() {
+        List<Long> ids = LongStream.rangeClosed(900_001, 900_050).boxed().toList();
+
+        // Outside a transaction events are published right away, far faster than a 1h flush interval
+        ids.forEach(id -> studentEventLog.statusChanged(List.of(id), StudentStatus.INACTIVE));
+
+        assertThat(ids).allSatisfy(id -> assertThat(studentEventLog.findByStudent(id))
+            .singleElement()
+            .extracting(StudentEvent::getType)
+            .isEqualTo(StudentEventType.STATUS_CHANGED));
+    }
+
+    @Test
+    void replayRestoresCachedStudentsAndDropsDeletedOnes() {
+        Student kept = studentService.saveStudent(student("Rita Replay", "rita@events.test"));
+        studentService.updateStudent(kept.getId(), student("Rita Restored", "rita@events.test"), null);
+        // An older snapshot logged after the newer one, as when two writers commit in one order and log in the other
+        studentEventLog.updated(kept);
+        studentEventLog.flush();
+        Student deleted = studentService.saveStudent(student("Dan Deleted", "dan@events.test"));
+        studentService.deleteStudent(deleted.getId());
+        Cache entities = cacheManager.getCache(StudentQueryCache.ENTITIES);
+        entities.clear();
+        entities.put(deleted.getId(), deleted);
+
+        try {
+            ReplayResult result = studentEventReplayer.replay();
+
+            assertThat(result.getEvents()).isGreaterThanOrEqualTo(5);
+            assertThat(entities.get(kept.getId(), Student.class))
+                .extracting(Student::getName, Student::getVersion)
+                .containsExactly("Rita Restored", 1L);
+            assertThat(entities.get(deleted.getId())).isNull();
+        } finally {
+            studentService.deleteStudent(kept.getId());
+        }
+    }
+
+    private static Student student(String name, String email) {
+        Student student = new Student();
+        student.setName(name);
+        student.setEmail(email);
+        student.setStatus(StudentStatus.ACTIVE);
+        return student;
+    }
+}
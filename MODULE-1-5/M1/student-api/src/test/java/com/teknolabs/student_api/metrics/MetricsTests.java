@@ -0,0 +1,74 @@
+package com.teknolabs.student_api.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+// Tests run without metrics export unless asked for
+@AutoConfigureObservability
+@TestPropertySource(properties = {
+    "spring.cache.type=simple",
+    "student.metrics.hibernate-statistics=true",
+    "student.metrics.detailed-timing=true",
+    "student.metrics.query-tracking.enabled=true"
+})
+class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Test
+    void publishesEndpointRepositoryCacheAndHibernateMetricsForPrometheus() throws Exception {
+        mockMvc.perform(get("/api/students/2")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/students/2")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/students/summaries")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+            .containsPattern("http_server_requests_seconds_bucket\\{.*uri=\"/api/students/\\{id}\"")
+            .containsPattern("spring_data_repository_invocations_seconds_bucket\\{.*method=\"findSummaries\"")
+            .containsPattern("cache_gets_total\\{.*cache=\"students\".*result=\"hit\"")
+            .containsPattern("cache_loads_seconds_count\\{.*cache=\"students\"")
+            .containsPattern("student_requests_queries_statements_count\\{.*uri=\"/api/students/summaries\"")
+            .contains("hibernate_statements_total", "hikaricp_connections_active");
+    }
+
+    @Test
+    void flagsRequestsRunningTheSameStatementRepeatedly() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QueryCountingFilter filter = new QueryCountingFilter(queryCounter, meterRegistry, 3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students/7/courses");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/students/{id}/courses");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            queryCounter.inspect("select s1_0.id from students s1_0");
+            for (int i = 0; i < 3; i++) {
+                queryCounter.inspect("select c1_0.id from courses c1_0 where c1_0.student_id=?");
+            }
+        });
+
+        assertThat(meterRegistry.get("student.requests.queries").tag("uri", "/api/students/{id}/courses")
+            .summary().totalAmount()).isEqualTo(4);
+        assertThat(meterRegistry.get("student.requests.repeated.queries").counter().count()).isEqualTo(1);
+    }
+}
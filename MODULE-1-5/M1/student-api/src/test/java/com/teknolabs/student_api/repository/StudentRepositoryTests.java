@@ -0,0 +1,58 @@
+package com.teknolabs.student_api.repository;
+
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class StudentRepositoryTests {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Test
+    void walksAllStudentsByNameWithKeysetPagination() {
+        List<String> names = new ArrayList<>();
+        String afterName = "";
+        Long afterId = 0L;
+        List<Student> page;
+        do {
+            page = studentRepository.findNextByName(afterName, afterId, Limit.of(1));
+            for (Student student : page) {
+                names.add(student.getName());
+                afterName = student.getName();
+                afterId = student.getId();
+            }
+        } while (!page.isEmpty());
+
+        assertThat(names).containsExactly("Alice Johnson", "Bob Wilson", "Jane Smith", "John Doe");
+    }
+
+    @Test
+    void seeksPastTheLastIdWithinAStatus() {
+        List<Student> page = studentRepository.findNextByStatusAndId(StudentStatus.ACTIVE, 1L, Limit.of(10));
+
+        assertThat(page).extracting(Student::getName).containsExactly("Jane Smith", "Bob Wilson");
+    }
+
+    @Test
+    void movesOnlyTheIdsThatStillMatchTheTransitionPredicate() {
+        // 3 is not ACTIVE and 1 was born before the bound: selected earlier, they no longer match
+        int moved = studentRepository.updateStatusWhere(List.of(1L, 2L, 3L, 4L), StudentStatus.ACTIVE,
+            LocalDate.of(2001, 1, 1), null, StudentStatus.SUSPENDED, LocalDateTime.now(), "test");
+
+        assertThat(moved).isEqualTo(2);
+        assertThat(studentRepository.findStatusById(3L)).contains(StudentStatus.GRADUATED);
+        assertThat(studentRepository.findStatusById(1L)).contains(StudentStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,110 @@
+package com.teknolabs.student_api.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentSearchIndexTests {
+
+    private final StudentSearchIndex index = new StudentSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild(Stream.of(
+            new SearchDocument(1L, "John Smith", "john.smith@example.com"),
+            new SearchDocument(2L, "Johnny Smithers", "jsmithers@example.com"),
+            new SearchDocument(3L, "Jane Doe", "jane.doe42@example.com"),
+            new SearchDocument(4L, "Zoë Jones", "zoe@example.com")));
+    }
+
+    @Test
+    void splitsWordsDigitsAndAccents() {
+        assertThat(StudentSearchIndex.tokenize("Zoë jane.doe42@Example.com"))
+            .containsExactly("zoe", "jane", "doe", "42", "example", "com");
+    }
+
+    @Test
+    void ranksExactMatchesBeforePrefixes() {
+        assertThat(ids("smith")).containsExactly(1L, 2L);
+        assertThat(ids("jo")).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    void matchesInsideWords() {
+        assertThat(ids("mither")).containsExactly(2L);
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertThat(ids("jhon")).containsExactly(1L);
+        assertThat(ids("smiht")).containsExactly(1L);
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        assertThat(ids("john smithers")).containsExactly(2L);
+        assertThat(ids("jane 42")).containsExactly(3L);
+        assertThat(ids("jane unknown")).isEmpty();
+    }
+
+    @Test
+    void appliesUpdatesAndRemovals() {
+        index.index(new SearchDocument(3L, "Jane Smith", "jane.smith@example.com"));
+        index.remove(1L);
+
+        assertThat(ids("smith")).containsExactly(3L, 2L);
+        assertThat(ids("doe")).isEmpty();
+    }
+
+    @Test
+    void dropsOnlyTheTermsAStudentNoLongerHas() {
+        // Lower ids after higher ones, so postings are not filled in id order
+        index.index(new SearchDocument(0L, "Omar Quil", "omar@example.com"));
+        assertThat(ids("qiul")).containsExactly(0L);
+        assertThat(ids("omar")).containsExactly(0L);
+
+        index.index(new SearchDocument(0L, "Omar Quinn", "omar@example.com"));
+
+        assertThat(ids("qiul")).isEmpty();
+        assertThat(ids("omar")).containsExactly(0L);
+        assertThat(ids("example")).containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L);
+
+        index.remove(0L);
+        assertThat(ids("omar")).isEmpty();
+        assertThat(ids("example")).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void keepsWritesMadeDuringRebuild() {
+        index.rebuild(Stream.of(new SearchDocument(5L, "Old Name", "old@example.com"),
+                new SearchDocument(6L, "Removed", "removed@example.com"))
+            .peek(document -> {
+                if (document.id() == 5L) {
+                    index.index(new SearchDocument(5L, "New Name", "new@example.com"));
+                    index.remove(6L);
+                }
+            }));
+
+        assertThat(ids("new")).containsExactly(5L);
+        assertThat(ids("old")).isEmpty();
+        assertThat(ids("removed")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void boundsEditDistance() {
+        assertThat(StudentSearchIndex.editDistance("jhon", "john", 1)).isEqualTo(1);
+        assertThat(StudentSearchIndex.editDistance("jonathan", "jonahtn", 2)).isEqualTo(2);
+        assertThat(StudentSearchIndex.editDistance("smith", "jones", 2)).isEqualTo(3);
+    }
+
+    private List<Long> ids(String keyword) {
+        List<StudentSearchIndex.Hit> hits = index.search(keyword);
+        hits.sort(StudentSearchIndex.BY_RELEVANCE);
+        return hits.stream().map(StudentSearchIndex.Hit::id).toList();
+    }
+}
@@ -0,0 +1,63 @@
+package com.teknolabs.student_api.service;
+
+import com.teknolabs.student_api.cache.StudentQueryCache;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@TestPropertySource(properties = {"spring.cache.type=simple", "student.batching.enabled=true",
+    "student.batching.window=200ms", "student.batching.max-batch-size=3"})
+class StudentBatchLoaderTests {
+
+    @Autowired
+    private StudentBatchLoader studentBatchLoader;
+
+    @SpyBean
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void mergesLookupsWithinTheWindowIntoOneQuery() {
+        cacheManager.getCache(StudentQueryCache.ENTITIES).clear();
+
+        List<CompletableFuture<Optional<Student>>> lookups = new ArrayList<>();
+        for (long id : new long[] {1, 2, 1, 999_999}) {
+            lookups.add(studentBatchLoader.load(id));
+        }
+
+        assertThat(lookups).extracting(lookup -> lookup.join().map(Student::getName).orElse(null))
+            .containsExactly("John Doe", "Jane Smith", "John Doe", null);
+        verify(studentRepository, times(1)).findAllById(anyCollection());
+        verify(studentRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void sendsAFullBatchWithoutWaitingForTheWindow() {
+        List<CompletableFuture<Optional<Student>>> lookups = List.of(
+            studentBatchLoader.load(2L), studentBatchLoader.load(3L), studentBatchLoader.load(4L));
+
+        long start = System.nanoTime();
+        assertThat(lookups).allSatisfy(lookup -> assertThat(lookup.join()).isPresent());
+        assertThat(System.nanoTime() - start).isLessThan(150_000_000L);
+    }
+}
@@ -0,0 +1,91 @@
+package com.teknolabs.student_api.service;
+
+import com.teknolabs.student_api.model.ImportResult;
+import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {"spring.cache.type=simple", "student.import.batch-size=2"})
+class StudentImportServiceTests {
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM students WHERE email LIKE '%@import.test'");
+    }
+
+    @Test
+    void importsCsvAndReportsInvalidRows() throws IOException {
+        String csv = """
+            name,email,dateOfBirth,phoneNumber,status
+            Ada Lovelace,ada@import.test,1995-12-10,+1234567800,ACTIVE
+            "Hopper, Grace",grace@import.test,,,graduated
+            X,short@import.test,,,
+            Alan Turing,alan@import.test,not-a-date,,
+            Duplicate,ada@import.test,,,
+            John Again,john.doe@example.com,,,
+            Edsger Dijkstra,edsger@import.test,,,
+            """;
+
+        ImportResult result = studentImportService.importCsv(stream(csv));
+
+        assertThat(result.getReceived()).isEqualTo(7);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(ImportResult.RowError::getRow).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(result.getErrors().get(2).getMessages()).containsExactly(
+            "Email appears more than once in the upload: ada@import.test");
+        assertThat(result.getErrors().get(3).getMessages()).containsExactly(
+            "Email already exists: john.doe@example.com");
+        assertThat(studentRepository.findByEmail("grace@import.test"))
+            .hasValueSatisfying(student -> {
+                assertThat(student.getName()).isEqualTo("Hopper, Grace");
+                assertThat(student.getStatus()).isEqualTo(StudentStatus.GRADUATED);
+                assertThat(student.getCreatedBy()).isEqualTo("SYSTEM");
+            });
+    }
+
+    @Test
+    void importsJsonArray() throws IOException {
+        String json = """
+            [
+              {"name": "Barbara Liskov", "email": "barbara@import.test", "dateOfBirth": "1999-11-07"},
+              {"name": "Ken Thompson", "email": "ken@import.test", "dateOfBirth": "yesterday"},
+              {"name": "Dennis Ritchie", "email": "not-an-email"},
+              {"id": 1, "name": "Niklaus Wirth", "email": "niklaus@import.test"}
+            ]
+            """;
+
+        ImportResult result = studentImportService.importJson(stream(json));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportResult.RowError::getRow).containsExactly(2L, 3L);
+        // Ids from the upload are ignored, so the existing student 1 is untouched
+        assertThat(studentRepository.findById(1L)).hasValueSatisfying(
+            student -> assertThat(student.getName()).isEqualTo("John Doe"));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,184 @@
+package com.teknolabs.student_api.service;
+
+import com.teknolabs.student_api.cache.StudentQueryCache;
+import com.teknolabs.student_api.model.StatusTransitionResult;
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.repository.StudentRepository;
+import com.teknolabs.student_api.search.StudentSearch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.answersWithDelay;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@TestPropertySource(properties = {"spring.cache.type=simple", "student.bulk.batch-size=1", "student.search.enabled=true"})
+class StudentServiceTests {
+
+    @Autowired
+    private StudentService studentService;
+
+    @SpyBean
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentSearch studentSearch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void restoreSampleStatuses() {
+        jdbcTemplate.update("UPDATE students SET student_status = 'ACTIVE', last_modified_date = NULL, "
+            + "last_modified_by = NULL WHERE id IN (1, 2, 4)");
+        jdbcTemplate.update("UPDATE students SET student_status = 'GRADUATED' WHERE id = 3");
+    }
+
+    @Test
+    void transitionsStudentsMatchingPredicateInChunks() {
+        StatusTransitionResult result = studentService.updateStatusWhere(
+            StudentStatus.ACTIVE, LocalDate.of(2001, 1, 1), null, StudentStatus.GRADUATED);
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getBatches()).isEqualTo(2);
+        assertThat(studentService.findByStatus(StudentStatus.GRADUATED))
+            .extracting(Student::getName)
+            .containsExactlyInAnyOrder("Alice Johnson", "Jane Smith", "Bob Wilson");
+        assertThat(studentRepository.findById(2L)).hasValueSatisfying(student -> {
+            assertThat(student.getLastModifiedBy()).isEqualTo("SYSTEM");
+            assertThat(student.getLastModifiedDate()).isNotNull();
+        });
+    }
+
+    @Test
+    void statusChangeMovesTheValidators() {
+        Student before = studentService.getStudentById(4L).orElseThrow();
+
+        assertThat(studentService.updateStudentStatus(4L, StudentStatus.SUSPENDED)).isTrue();
+
+        // ETag and Last-Modified come from these, so a conditional GET must not answer 304 afterwards
+        assertThat(studentService.getStudentById(4L)).hasValueSatisfying(student -> {
+            assertThat(student.getStatus()).isEqualTo(StudentStatus.SUSPENDED);
+            assertThat(student.getVersion()).isEqualTo(before.getVersion() + 1);
+            assertThat(student.getLastModifiedBy()).isEqualTo("SYSTEM");
+            assertThat(student.getLastModifiedDate()).isNotNull();
+        });
+    }
+
+    @Test
+    void countsOnlyStudentsThatChangedAndRefreshesCachedEntries() {
+        // Warm the entity cache so a stale entry would be visible
+        assertThat(studentService.getStudentById(1L)).hasValueSatisfying(
+            student -> assertThat(student.getStatus()).isEqualTo(StudentStatus.ACTIVE));
+
+        StatusTransitionResult result = studentService.updateStatusForIds(List.of(1L, 3L, 1L), StudentStatus.GRADUATED);
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(studentService.getStudentById(1L)).hasValueSatisfying(
+            student -> assertThat(student.getStatus()).isEqualTo(StudentStatus.GRADUATED));
+    }
+
+    @Test
+    void searchesIndexWithTyposAndKeepsItInSyncWithWrites() {
+        studentSearch.rebuild();
+        assertThat(studentService.searchStudents("jhon", PageRequest.of(0, 10)))
+            .extracting(Student::getName)
+            .containsExactly("John Doe");
+
+        Student student = new Student();
+        student.setName("Johanna Searchable");
+        student.setEmail("johanna@search.test");
+        student.setStatus(StudentStatus.ACTIVE);
+        Student saved = studentService.saveStudent(student);
+        try {
+            assertThat(studentService.searchStudents("searcha", PageRequest.of(0, 10)))
+                .extracting(Student::getId)
+                .containsExactly(saved.getId());
+        } finally {
+            studentService.deleteStudent(saved.getId());
+        }
+        assertThat(studentService.searchStudents("searcha", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void concurrentCacheMissesRunOneQuery() throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        // Slow queries keep every caller's miss inside the first caller's load
+        Answer<?> repository = mockingDetails(studentRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(answersWithDelay(200, repository)).when(studentRepository).findById(2L);
+        doAnswer(answersWithDelay(200, repository)).when(studentRepository).findByStatus(StudentStatus.GRADUATED);
+
+        List<Student> byId = concurrently(() -> studentService.getStudentById(2L).orElseThrow());
+        List<List<Student>> byStatus = concurrently(() -> studentService.findByStatus(StudentStatus.GRADUATED));
+
+        verify(studentRepository, times(1)).findById(2L);
+        verify(studentRepository, times(1)).findByStatus(StudentStatus.GRADUATED);
+        assertThat(byId).extracting(Student::getName).containsOnly("Jane Smith");
+        assertThat(byStatus).allSatisfy(students -> assertThat(students).extracting(Student::getId).containsExactly(3L));
+    }
+
+    @Test
+    void readsManyStudentsWithOneQueryForTheCacheMisses() {
+        cacheManager.getCache(StudentQueryCache.ENTITIES).clear();
+        studentService.getStudentById(2L);
+
+        assertThat(studentService.getStudentsByIds(List.of(3L, 2L, 999_999L, 1L, 3L)))
+            .extracting(Student::getId)
+            .containsExactly(3L, 2L, 1L);
+        verify(studentRepository, times(1)).findAllById(List.of(3L, 999_999L, 1L));
+
+        assertThat(studentService.getStudentsByIds(List.of(1L, 3L))).extracting(Student::getName)
+            .containsExactly("John Doe", "Alice Johnson");
+        verify(studentRepository, times(1)).findAllById(anyCollection());
+    }
+
+    private static <T> List<T> concurrently(Callable<T> call) throws Exception {
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.teknolabs.student_api.stats;
+
+import com.teknolabs.student_api.model.Student;
+import com.teknolabs.student_api.model.StudentStats;
+import com.teknolabs.student_api.model.StudentStatus;
+import com.teknolabs.student_api.repository.StudentRepository;
+import com.teknolabs.student_api.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest
+@TestPropertySource(properties = {"spring.cache.type=simple", "student.stats.reconcile-interval=1h"})
+class StudentAggregatesTests {
+
+    @Autowired
+    private StudentAggregates studentAggregates;
+
+    @Autowired
+    private StudentService studentService;
+
+    @SpyBean
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void reconcile() {
+        // Other test contexts share the database, so start from its current counts
+        assertThat(studentAggregates.reconcile()).isTrue();
+    }
+
+    @Test
+    void followsWritesWithoutCountingInTheDatabase() {
+        StudentStats before = studentService.getStats();
+        assertThat(before.getSource()).isEqualTo(StudentStats.Source.COUNTERS);
+        assertThat(before.getByBirthYear()).containsEntry("2000", 1L).containsEntry("2001", 1L);
+
+        Student student = student("Counted Student", "counted@stats.test");
+        student.setDateOfBirth(LocalDate.of(1985, 6, 1));
+        Student saved = studentService.saveStudent(student);
+        try {
+            StudentStats created = studentService.getStats();
+            assertThat(created.getTotal()).isEqualTo(before.getTotal() + 1);
+            assertThat(created.getByStatus().get(StudentStatus.ACTIVE))
+                .isEqualTo(before.getByStatus().get(StudentStatus.ACTIVE) + 1);
+            assertThat(created.getByBirthYear()).containsEntry("1985", 1L);
+
+            studentService.updateStudentStatus(saved.getId(), StudentStatus.SUSPENDED);
+            studentService.updateStatusForIds(List.of(saved.getId(), 3L), StudentStatus.GRADUATED);
+            assertThat(studentService.countByStatus(StudentStatus.SUSPENDED))
+                .isEqualTo(before.getByStatus().get(StudentStatus.SUSPENDED));
+            assertThat(studentService.countByStatus(StudentStatus.GRADUATED))
+                .isEqualTo(before.getByStatus().get(StudentStatus.GRADUATED) + 1);
+        } finally {
+            studentService.deleteStudent(saved.getId());
+        }
+
+        StudentStats after = studentService.getStats();
+        assertThat(after.getByStatus()).isEqualTo(before.getByStatus());
+        assertThat(after.getByBirthYear()).isEqualTo(before.getByBirthYear());
+        // Nothing drifted, so a recount finds the same
+        assertThat(studentAggregates.reconcile()).isTrue();
+        assertThat(studentService.getStats().getByStatus()).isEqualTo(before.getByStatus());
+    }
+
+    @Test
+    void countsAStudentOutOfTheStatusItReallyLeft() {
+        Student saved = studentService.saveStudent(student("Raced Student", "raced@stats.test"));
+        AtomicBoolean raced = new AtomicBoolean();
+        // Another writer changes the status between this update's read of it and its UPDATE statement
+        Answer<?> repository = mockingDetails(studentRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            if (raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(
+                    () -> studentService.updateStudentStatus(saved.getId(), StudentStatus.GRADUATED)).join();
+            }
+            return repository.answer(invocation);
+        }).when(studentRepository).updateStudentStatus(any(), any(), any(), any(), any());
+        try {
+            assertThat(studentService.updateStudentStatus(saved.getId(), StudentStatus.SUSPENDED)).isTrue();
+
+            // ACTIVE -> GRADUATED -> SUSPENDED, each counted once
+            for (StudentStatus status : StudentStatus.values()) {
+                assertThat(studentService.countByStatus(status)).as(status.name())
+                    .isEqualTo(studentRepository.countByStatus(status));
+            }
+        } finally {
+            studentService.deleteStudent(saved.getId());
+        }
+    }
+
+    @Test
+    void skipsReconciliationWhileAWriteIsInProgress() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Student saved = transactionTemplate.execute(tx -> {
+            Student created = studentService.saveStudent(student("Pending Student", "pending@stats.test"));
+            // Counted in the database as soon as it commits, but in the counts a little later
+            assertThat(CompletableFuture.supplyAsync(studentAggregates::reconcile).join()).isFalse();
+            return created;
+        });
+        try {
+            assertThat(studentAggregates.reconcile()).isTrue();
+        } finally {
+            studentService.deleteStudent(saved.getId());
+        }
+    }
+
+    @Test
+    void reconciliationCorrectsWritesThatBypassedTheService() {
+        long active = studentService.countByStatus(StudentStatus.ACTIVE);
+        jdbcTemplate.update("UPDATE students SET student_status = 'INACTIVE' WHERE id = 4");
+        try {
+            assertThat(studentService.countByStatus(StudentStatus.ACTIVE)).isEqualTo(active);
+
+            assertThat(studentAggregates.reconcile()).isTrue();
+            assertThat(studentService.countByStatus(StudentStatus.ACTIVE)).isEqualTo(active - 1);
+            assertThat(studentService.getStats().getReconciledAt()).isNotNull();
+        } finally {
+            jdbcTemplate.update("UPDATE students SET student_status = 'ACTIVE' WHERE id = 4");
+        }
+    }
+
+    private static Student student(String name, String email) {
+        Student student = new Student();
+        student.setName(name);
+        student.setEmail(email);
+        student.setStatus(StudentStatus.ACTIVE);
+        return student;
+    }
+}